@@ -0,0 +1,146 @@
+package com.shade.bench;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.newdawn.slick.GameContainer;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.geom.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.crash.Body;
+import com.shade.crash.Neighbors;
+import com.shade.entities.Roles;
+import com.shade.entities.mushroom.Mushroom;
+import com.shade.entities.mushroom.MushroomFactory;
+import com.shade.levels.Model;
+import com.shade.lighting.LuminousEntity;
+import com.shade.sim.Simulation;
+
+/**
+ * Role lookups and spatial queries on a populated level.
+ *
+ * The level is level-1 topped up with a number of mushrooms scattered around
+ * seeded spots so runs are comparable. None of these change the level, so
+ * it's built once per trial; updating it is measured by
+ * {@link LevelUpdateBenchmark}.
+ *
+ * The level remembers sight lines until its next update, so
+ * {@link #lineOfSight(Unseen)} has them forgotten before every call to time
+ * the trace, and {@link #lineOfSightRecalled()} times answering from memory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelBenchmark {
+
+    @Param({ "16", "64", "256" })
+    public int mushrooms;
+
+    private Model model;
+    private LuminousEntity player, basket;
+    private Neighbors nearby = new Neighbors(8);
+
+    @Setup
+    public void setup() throws SlickException {
+        Simulation sim = populate(mushrooms);
+        model = sim.getModel();
+        player = model.getPlayer();
+        basket = model.getBasket();
+    }
+
+    @Benchmark
+    public List<LuminousEntity> getEntitiesByRole() {
+        return model.getEntitiesByRole(Roles.MUSHROOM);
+    }
+
+    @Benchmark
+    public LuminousEntity[] nearbyEntities() {
+        return model.nearbyEntities(player, 200);
+    }
+
+    @Benchmark
+    public Neighbors within() {
+        model.within(player, 200, Roles.MUSHROOM, nearby);
+        return nearby;
+    }
+
+    @Benchmark
+    public Neighbors nearest() {
+        model.nearest(player, null, nearby);
+        return nearby;
+    }
+
+    @Benchmark
+    public boolean lineOfSight(Unseen level) {
+        return level.model.lineOfSight(level.player, level.basket);
+    }
+
+    @Benchmark
+    public boolean lineOfSightRecalled() {
+        return model.lineOfSight(player, basket);
+    }
+
+    /**
+     * The same level, with its sight lines forgotten before every call so
+     * each one is traced. Kept apart so the other queries don't pay for the
+     * extra setup.
+     */
+    @State(Scope.Thread)
+    public static class Unseen {
+
+        @Param({ "16", "64", "256" })
+        public int mushrooms;
+
+        private Model model;
+        private LuminousEntity player, basket;
+
+        @Setup
+        public void setup() throws SlickException {
+            model = populate(mushrooms).getModel();
+            player = model.getPlayer();
+            basket = model.getBasket();
+        }
+
+        @Setup(Level.Invocation)
+        public void forget() {
+            model.getSightLines().forget();
+        }
+
+    }
+
+    /*
+     * Load level-1 and scatter the given number of mushrooms around it, the
+     * same spots every time.
+     */
+    static Simulation populate(int mushrooms) throws SlickException {
+        Simulation sim = new Simulation("levels/level-1.xml",
+                new Simulation.Idle());
+        Model model = sim.getModel();
+        GameContainer c = sim.getGame().getContainer();
+        MushroomFactory factory = model.getMushroomFactory();
+        Random r = new Random(42);
+        int added = 0;
+        while (added < mushrooms) {
+            float x = r.nextInt(model.getWidth() - 50);
+            float y = r.nextInt(model.getHeight() - 50);
+            Rectangle spot = new Rectangle(x, y, 50, 50);
+            Mushroom m = factory.getMushroom(c, spot, (Body) model.getBasket());
+            if (m != null) {
+                model.add(m);
+                added++;
+            }
+        }
+        return sim;
+    }
+
+}
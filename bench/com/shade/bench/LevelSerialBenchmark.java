@@ -0,0 +1,53 @@
+package com.shade.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.newdawn.slick.SlickException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shade.levels.LevelFormat;
+import com.shade.levels.LevelSerial;
+import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
+
+/**
+ * Parsing each bundled level and instantiating its entities, from XML and
+ * from the precompiled form ant compile writes next to it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelSerialBenchmark {
+
+    @Param({ "levels/level-0.xml", "levels/level-1.xml", "levels/level-2.xml",
+            "levels/level-3.xml", "levels/level-4.xml", "levels/level-5.xml",
+            "levels/level-6.xml", "levels/level-7.xml", "levels/level-8.xml",
+            "levels/level-9.xml", "levels/level-10.xml", "levels/level-11.xml",
+            "levels/level-12.xml", "levels/level-13.xml",
+            "levels/level-14.xml", "levels/level-15.xml",
+            "levels/level-16.xml", "levels/level-18.xml" })
+    public String level;
+
+    @Setup
+    public void setup() {
+        ResourceManager.setHeadless(true);
+    }
+
+    @Benchmark
+    public LuminousEntity[] entities() throws SlickException {
+        return new LevelSerial(level).entities();
+    }
+
+    @Benchmark
+    public LuminousEntity[] compiledEntities() throws SlickException {
+        return LevelFormat.read(LevelFormat.compiledPath(level)).entities();
+    }
+
+}
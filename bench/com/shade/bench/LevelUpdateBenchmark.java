@@ -0,0 +1,57 @@
+package com.shade.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.state.StateBasedGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shade.levels.Model;
+import com.shade.sim.Simulation;
+
+/**
+ * Updating a populated level, the same one LevelBenchmark queries.
+ *
+ * Updating changes the level, so it's rebuilt before every call; otherwise
+ * later calls would step a level which had been played for however long the
+ * run had lasted, with mushrooms picked and monsters wandered off. Each call
+ * plays a second's worth of ticks so the timing isn't lost in the noise of
+ * setting up.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LevelUpdateBenchmark {
+
+    private static final int TICKS = 60;
+
+    @Param({ "16", "64", "256" })
+    public int mushrooms;
+
+    private StateBasedGame game;
+    private Model model;
+
+    @Setup(Level.Invocation)
+    public void setup() throws SlickException {
+        Simulation sim = LevelBenchmark.populate(mushrooms);
+        game = sim.getGame();
+        model = sim.getModel();
+    }
+
+    @Benchmark
+    public Model update() {
+        for (int i = 0; i < TICKS; i++) {
+            model.update(game, Simulation.FIXED_DELTA);
+        }
+        return model;
+    }
+
+}
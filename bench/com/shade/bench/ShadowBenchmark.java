@@ -0,0 +1,81 @@
+package com.shade.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.geom.Shape;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shade.entities.Block;
+import com.shade.entities.Dome;
+import com.shade.entities.Fence;
+import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
+
+/**
+ * Shadow casting for the common obstacles.
+ *
+ * The moving benchmarks turn the sun a little further than a cache bucket on
+ * every call so the shadow is rebuilt each time; the still ones keep the sun
+ * put and measure the cached path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ShadowBenchmark {
+
+    private static final float DEPTH = 12;
+    private static final float STEP = .01f;
+
+    private LuminousEntity dome, block, fence;
+    private float angle;
+
+    @Setup
+    public void setup() throws SlickException {
+        ResourceManager.setHeadless(true);
+        dome = new Dome(400, 300, 4, 40);
+        block = new Block(200, 200, 4, 50);
+        fence = new Fence(600, 400, 3, 0);
+        angle = (float) (4 * Math.PI / 3);
+    }
+
+    @Benchmark
+    public Shape domeMoving() {
+        angle += STEP;
+        return dome.castShadow(angle, DEPTH);
+    }
+
+    @Benchmark
+    public Shape blockMoving() {
+        angle += STEP;
+        return block.castShadow(angle, DEPTH);
+    }
+
+    @Benchmark
+    public Shape fenceMoving() {
+        angle += STEP;
+        return fence.castShadow(angle, DEPTH);
+    }
+
+    @Benchmark
+    public Shape domeStill() {
+        return dome.castShadow(angle, DEPTH);
+    }
+
+    @Benchmark
+    public Shape blockStill() {
+        return block.castShadow(angle, DEPTH);
+    }
+
+    @Benchmark
+    public Shape fenceStill() {
+        return fence.castShadow(angle, DEPTH);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.shade.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.newdawn.slick.SlickException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.shade.crash.Torus;
+import com.shade.entities.Player;
+import com.shade.util.ResourceManager;
+
+/**
+ * The wrapped distance and angle picked mushrooms use to follow whoever is
+ * ahead of them.
+ *
+ * Players stand in for the mushrooms since any body will do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrappingBenchmark {
+
+    private Torus torus;
+    private Player player, near, far;
+
+    @Setup
+    public void setup() throws SlickException {
+        ResourceManager.setHeadless(true);
+        torus = new Torus(800, 600);
+        player = new Player(20, 20);
+        near = new Player(40, 40);
+        // across the corner, closer once the world wraps
+        far = new Player(780, 580);
+    }
+
+    @Benchmark
+    public float calculateAngleNear() {
+        return torus.calculateAngle(player, near);
+    }
+
+    @Benchmark
+    public float calculateAngleWrapped() {
+        return torus.calculateAngle(player, far);
+    }
+
+    @Benchmark
+    public float distance2Wrapped() {
+        return torus.distance2(player, far);
+    }
+
+}
@@ -1,28 +1,46 @@
 <?php
-/** Read in a CSV file and save the rows. */
-// read CSV data from POST.
+/**
+ * Read in a CSV file and save the rows.
+ *
+ * The body is gzipped CSV, one score per row: name, score, level, clear and
+ * key. Clients send a chunk again if they miss the reply, so `scores` needs
+ * a unique index on `token` for the duplicates to be ignored. Older clients
+ * post the CSV as the form field scores, without keys.
+ *
+ * Answers success once every row is stored, and invalid with a 422 if a row
+ * is malformed since sending it again won't help. Anything else, like
+ * failure with a 503 when the database fails, makes the client keep the
+ * scores and try again later.
+ */
+// read CSV data from the body or, for older clients, POST.
 $scores = @$_POST['scores'];
+if (!isset($scores)) {
+	$scores = file_get_contents('php://input');
+	if (@$_SERVER['HTTP_CONTENT_ENCODING'] == 'gzip') {
+		$scores = @gzdecode($scores);
+	}
+}
 
 /* Replace this w/ real information. */
 $dsn = 'mysql:dbname=[dbname];host=[dbhost]';
 $user = '[dbuser]';
 $pass = '[dbpass]';
 
-if (!isset($scores)) {
+if ($scores === FALSE || $scores == '') {
 	echo "failure";
 	exit;
 }
 
 try {
-    $dbh = new PDO($dsn, $user, $pass);
+    $dbh = new PDO($dsn, $user, $pass,
+        array(PDO::ATTR_ERRMODE => PDO::ERRMODE_EXCEPTION));
 } catch (PDOException $e) {
+	header('HTTP/1.1 503 Service Unavailable');
 	echo "failure";
     exit;
 }
 
-// TODO start transaction
-$q = 'INSERT INTO `scores` (clear, name, score) VALUES (?, ?, ?)';
-$stmt = $dbh->prepare($q);
+$q = 'INSERT IGNORE INTO `scores` (clear, name, score, token) VALUES (?, ?, ?, ?)';
 
 // Get a file pointer to the score data.
 $fp = fopen('php://memory', 'r+');
@@ -30,23 +48,31 @@ fputs($fp, $scores);
 rewind($fp);
 
 try {
+	$stmt = $dbh->prepare($q);
 	$dbh->beginTransaction();
 	while (($score = fgetcsv($fp, 1000, ',')) !== FALSE) {
-    	$stmt->bindParam(1, $score[2], PDO::PARAM_INT);
-	    $stmt->bindParam(2, $score[0], PDO::PARAM_STR);
-    	$stmt->bindParam(3, $score[1], PDO::PARAM_INT);
-	    if (!$stmt->execute()) {
-    	    // TODO rollback transaction
-			echo "failure";
+		if (count($score) < 4 || !is_numeric($score[1])) {
+			$dbh->rollBack();
+			header('HTTP/1.1 422 Unprocessable Entity');
+			echo "invalid";
 			exit;
-    	}
+		}
+		$token = (count($score) > 4) ? $score[4] : NULL;
+		$stmt->bindParam(1, $score[3], PDO::PARAM_INT);
+		$stmt->bindParam(2, $score[0], PDO::PARAM_STR);
+		$stmt->bindParam(3, $score[1], PDO::PARAM_INT);
+		$stmt->bindParam(4, $token, PDO::PARAM_STR);
+		$stmt->execute();
 	}
 	$dbh->commit();
-} catch (Exception $e) {
-	$dbh->rollBack();
+} catch (PDOException $e) {
+	if ($dbh->inTransaction()) {
+		$dbh->rollBack();
+	}
+	header('HTTP/1.1 503 Service Unavailable');
 	echo "failure"; // failed somewhere along the way
 	exit;
 }
 
 echo "success";
-?>
\ No newline at end of file
+?>
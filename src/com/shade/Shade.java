@@ -2,11 +2,14 @@ package com.shade;
 
 import org.newdawn.slick.AppGameContainer;
 import org.newdawn.slick.GameContainer;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.state.StateBasedGame;
 import org.newdawn.slick.util.Log;
 
 import com.shade.states.MasterState;
+import com.shade.util.Profiler;
 
 public class Shade extends StateBasedGame {
 
@@ -17,6 +20,9 @@ public class Shade extends StateBasedGame {
         "icons/shade.32.gif",
         "icons/shade.128.gif"
     };
+    private static final String PROFILE = "profile.csv";
+
+    private long frame;
 
     public Shade() {
         super(TITLE);
@@ -27,6 +33,26 @@ public class Shade extends StateBasedGame {
         addState(new MasterState());
     }
 
+    @Override
+    protected void preUpdateState(GameContainer container, int delta) {
+        frame = Profiler.start();
+    }
+
+    @Override
+    protected void postRenderState(GameContainer container, Graphics g) {
+        Profiler.render(g);
+        Profiler.stop(Profiler.Scope.FRAME, frame);
+    }
+
+    @Override
+    public void keyPressed(int key, char c) {
+        if (key == Input.KEY_F3) {
+            Profiler.toggle();
+            return;
+        }
+        super.keyPressed(key, c);
+    }
+
     public static void main(String[] args) {
         try {
             Shade s = new Shade();
@@ -35,6 +61,7 @@ public class Shade extends StateBasedGame {
             c.setShowFPS(false);
             c.setTargetFrameRate(60);
             Log.setVerbose(true);
+            Profiler.dumpOnExit(PROFILE);
             c.start();
         } catch (SlickException e) {
             e.printStackTrace();
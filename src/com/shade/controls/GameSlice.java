@@ -1,6 +1,7 @@
 package com.shade.controls;
 
 import java.util.LinkedList;
+import java.util.List;
 
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.Graphics;
@@ -9,8 +10,6 @@ import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Shape;
 import org.newdawn.slick.state.StateBasedGame;
 
-import sun.security.action.GetBooleanAction;
-
 import com.crash.Body;
 import com.crash.util.CrashGeom;
 import com.shade.entities.Basket;
@@ -23,6 +22,9 @@ import com.shade.levels.Model;
 import com.shade.lighting.GlobalLight;
 import com.shade.lighting.LightMask;
 import com.shade.lighting.LuminousEntity;
+import com.shade.lighting.ShadowMap;
+import com.shade.util.Profiler;
+import com.shade.util.Rng;
 
 public class GameSlice {
 
@@ -30,6 +32,9 @@ public class GameSlice {
     private Model model;
     private MushroomFactory factory;
     private LightMask view;
+    private ShadowMap shadows;
+    // reused each update to hand the entities to the shadow map
+    private LuminousEntity[] lit;
     private LinkedList<MushroomCounter> controls;
     // private boolean flushControls;
 
@@ -59,7 +64,9 @@ public class GameSlice {
         model = m;
         model.setTimer(timer);
         factory = m.getMushroomFactory();
-        basket = (Body) model.getEntitiesByRole(Roles.BASKET.ordinal())[0];
+        basket = model.getBasket();
+        shadows = new ShadowMap(m.getWidth(), m.getHeight(), m.getCellSize());
+        lit = new LuminousEntity[0];
     }
 
     public void addEntity(LuminousEntity e) {
@@ -67,8 +74,14 @@ public class GameSlice {
     }
 
     public void update(StateBasedGame game, int delta) throws SlickException {
+        long start = Profiler.start();
         model.update(game, delta);
         light.update(game, delta);
+        if (view.getSampling() == LightMask.Sampling.ANALYTIC) {
+            lit = model.toArray(lit);
+            shadows.update(light, lit);
+            shadows.illuminate(lit);
+        }
         // if (flushControls) {
         // controls.clear();
         // flushControls = false;
@@ -76,6 +89,7 @@ public class GameSlice {
         for (int i = 0; i < controls.size(); i++) {
             controls.get(i).update(game, delta);
         }
+        long spawning = Profiler.start();
         if (factory.active()) {
             GameContainer c = game.getContainer();
             Mushroom m = factory.getMushroom(c, randomShadow(), basket);
@@ -83,7 +97,9 @@ public class GameSlice {
                 model.add(m);
             }
         }
+        Profiler.stop(Profiler.Scope.MUSHROOMS, spawning);
         timer.update(delta);
+        Profiler.stop(Profiler.Scope.SLICE, start);
     }
 
     public void render(StateBasedGame game, Graphics g, Image... backgrounds) {
@@ -93,20 +109,25 @@ public class GameSlice {
         }
     }
 
+    public ShadowMap getShadows() {
+        return shadows;
+    }
+
     private LuminousEntity randomEntity() {
-        Object[] entities = model.getEntitiesByRole(Roles.OBSTACLE.ordinal());
-        int rank = (int) (Math.random() * Obstacle.maxRank);
-        int i = (int) (Math.random() * entities.length);
+        List<LuminousEntity> entities = model.getEntitiesByRole(Roles.OBSTACLE);
+        Rng random = model.random(Model.Stream.SPAWNS);
+        int rank = random.nextInt(Obstacle.maxRank);
+        int i = random.nextInt(entities.size());
         int counter = 0;
-        while (((Obstacle) entities[i]).rank() < rank) {
-            i = (int) (Math.random() * entities.length);
+        while (((Obstacle) entities.get(i)).rank() < rank) {
+            i = random.nextInt(entities.size());
             counter++;
             if (counter % 2 == 0) {
                 rank--;
             }
         }
-//        System.out.println(entities[i]);
-        return (LuminousEntity) entities[i];
+//        System.out.println(entities.get(i));
+        return entities.get(i);
     }
 
     private Shape randomShadow() {
@@ -125,37 +146,35 @@ public class GameSlice {
         if (!(counter instanceof MeterControl)) {
             return;
         }
-        Object[] players = model.getEntitiesByRole(Roles.PLAYER.ordinal());
-        if (players.length == 0) {
+        Player p = model.getPlayer();
+        if (p == null) {
             return;
         }
-        Player p = (Player) players[0];
         ((MeterControl) counter).track(p);
     }
 
     private void initBaskets(MushroomCounter counter) {
-        Object[] baskets = model.getEntitiesByRole(Roles.BASKET.ordinal());
-        if (baskets.length == 0) {
+        List<LuminousEntity> baskets = model.getEntitiesByRole(Roles.BASKET);
+        if (baskets.isEmpty()) {
             return;
         }
-        for (Object o : baskets) {
-            Basket b = (Basket) o;
+        for (LuminousEntity e : baskets) {
+            Basket b = (Basket) e;
             b.add(counter);
         }
         if (counter instanceof CounterControl) {
-            ((CounterControl) counter).track(baskets[0]);
+            ((CounterControl) counter).track(baskets.get(0));
         }
     }
 
     public void killPlayer() {
-        Object[] players = model.getEntitiesByRole(Roles.PLAYER.ordinal());
-        if (players.length > 0) {
-            model.remove((LuminousEntity) players[0]);
+        Player p = model.getPlayer();
+        if (p != null) {
+            model.remove(p);
         }
     }
 
     public float distanceTraveled() {
-        Object[] players = model.getEntitiesByRole(Roles.PLAYER.ordinal());
-        return ((Player) players[0]).totalMileage();
+        return model.getPlayer().totalMileage();
     }
 }
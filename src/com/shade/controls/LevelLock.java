@@ -1,13 +1,12 @@
 package com.shade.controls;
 
-import java.util.prefs.Preferences;
-
 import com.shade.levels.LevelManager;
 
 /**
  * Controls which levels are available to the player.
  * 
- * This object persists through the user preferences.
+ * This object persists through the user preferences, by way of the
+ * StatStore.
  * 
  * @author Alexander Schearer <aschearer@gmail.com>
  */
@@ -28,8 +27,7 @@ public class LevelLock {
     }
 
     private boolean[] deserialize() {
-        Preferences prefs = Preferences.systemNodeForPackage(this.getClass());
-        String serial = prefs.get(LEVELS_KEY, STRING_EMPTY);
+        String serial = StatStore.get().get(LEVELS_KEY, STRING_EMPTY);
         String[] levels = serial.split(DELIMITER);
         for (int i = 0; i < levels.length; i++) {
             if (levels[i].equals(LEVEL_UNLOCKED)) {
@@ -61,8 +59,7 @@ public class LevelLock {
             }
         }
         String serial = implode(levels, DELIMITER);
-        Preferences prefs = Preferences.systemNodeForPackage(this.getClass());
-        prefs.put(LEVELS_KEY, serial);
+        StatStore.get().put(LEVELS_KEY, serial);
     }
 
     private String implode(String[] strings, String glue) {
@@ -1,24 +1,29 @@
 package com.shade.controls;
 
-import java.util.prefs.Preferences;
-
 import com.shade.levels.LevelManager;
 
+/**
+ * Stats which last between plays, kept in the StatStore.
+ */
 public class SerialStats {
     
     public static int read(String stat) {
-        Preferences stats = Preferences.systemNodeForPackage(SerialStats.class);
-        return stats.getInt(stat, 0);
+        return StatStore.get().getInt(stat, 0);
     }
     
     public static void add(String stat, int value) {
-        value += read(stat);
-        write(stat, value);
+        StatStore.get().add(stat, value);
     }
 
     public static void write(String stat, int value) {
-        Preferences stats = Preferences.systemNodeForPackage(SerialStats.class);
-        stats.putInt(stat, value);
+        StatStore.get().putInt(stat, value);
+    }
+
+    /**
+     * Make several changes which are saved together.
+     */
+    public static void update(StatStore.Update u) {
+        StatStore.get().update(u);
     }
     
     public static void reset(String stat) {
@@ -0,0 +1,163 @@
+package com.shade.controls;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * In-memory copy of the preferences SerialStats and LevelLock persist to.
+ *
+ * Everything is read from Preferences once, the first time the store is
+ * used. After that reads and writes only touch memory. Changes are written
+ * back on a background thread FLUSH_DELAY milliseconds after the first one,
+ * so a burst of writes costs one trip to the backing store, and once more
+ * when the game exits. Nothing on the game loop waits on Preferences.
+ *
+ * Use update to change several values at once; a flush never sees some of
+ * its changes without the rest.
+ */
+public class StatStore {
+
+    /* How long to gather changes before writing them out. */
+    public static final long FLUSH_DELAY = 2000;
+
+    /**
+     * Several changes which go to the backing store together.
+     */
+    public interface Update {
+        void apply(StatStore store);
+    }
+
+    private static StatStore store;
+
+    private Preferences node;
+    private Object writing;
+    private HashMap<String, String> values;
+    private HashMap<String, String> dirty;
+    private ScheduledExecutorService flusher;
+    private boolean scheduled;
+
+    /**
+     * Return the game's store, loading it the first time.
+     */
+    public static synchronized StatStore get() {
+        if (store == null) {
+            store = new StatStore(Preferences
+                    .systemNodeForPackage(StatStore.class));
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                public void run() {
+                    store.flush();
+                }
+            });
+        }
+        return store;
+    }
+
+    public StatStore(Preferences node) {
+        this.node = node;
+        writing = new Object();
+        values = new HashMap<String, String>();
+        dirty = new HashMap<String, String>();
+        try {
+            for (String key : node.keys()) {
+                values.put(key, node.get(key, null));
+            }
+        } catch (BackingStoreException e) {
+            e.printStackTrace();
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "stat-flush");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    public synchronized String get(String key, String def) {
+        String value = values.get(key);
+        return (value == null) ? def : value;
+    }
+
+    public synchronized int getInt(String key, int def) {
+        String value = values.get(key);
+        if (value == null) {
+            return def;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    public synchronized void put(String key, String value) {
+        if (value.equals(values.get(key))) {
+            return;
+        }
+        values.put(key, value);
+        dirty.put(key, value);
+        schedule();
+    }
+
+    public synchronized void putInt(String key, int value) {
+        put(key, Integer.toString(value));
+    }
+
+    /**
+     * Add to an int, treating it as zero if it isn't set.
+     */
+    public synchronized void add(String key, int value) {
+        putInt(key, getInt(key, 0) + value);
+    }
+
+    /**
+     * Make all of the update's changes as one.
+     */
+    public synchronized void update(Update u) {
+        u.apply(this);
+    }
+
+    /**
+     * Write any changes to the backing store now.
+     */
+    public void flush() {
+        // one flush at a time so older changes can't land after newer ones
+        synchronized (writing) {
+            HashMap<String, String> changes;
+            synchronized (this) {
+                scheduled = false;
+                if (dirty.isEmpty()) {
+                    return;
+                }
+                changes = dirty;
+                dirty = new HashMap<String, String>();
+            }
+            for (Map.Entry<String, String> e : changes.entrySet()) {
+                node.put(e.getKey(), e.getValue());
+            }
+            try {
+                node.flush();
+            } catch (BackingStoreException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void schedule() {
+        if (scheduled) {
+            return;
+        }
+        scheduled = true;
+        flusher.schedule(new Runnable() {
+            public void run() {
+                flush();
+            }
+        }, FLUSH_DELAY, TimeUnit.MILLISECONDS);
+    }
+}
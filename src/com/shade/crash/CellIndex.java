@@ -0,0 +1,193 @@
+package com.shade.crash;
+
+import com.shade.entities.Roles;
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * Buckets entities by the grid cell their center falls in so neighbor
+ * queries only look at nearby cells.
+ *
+ * Uses the same cells as the level's collision grid. The buckets are packed
+ * into flat arrays with a counting sort and rebuilt lazily the first time
+ * they're queried after being invalidated. Entities keep moving while the
+ * level updates, so the cells searched are padded by SLACK to catch anything
+ * which has crossed into a neighboring cell since the last rebuild; the
+ * distances handed back are always measured from current positions.
+ *
+ * The playfield wraps, so searches carry on across the edges and distances
+ * are measured the short way around.
+ */
+class CellIndex {
+
+    /* Further than anything moves between rebuilds. */
+    private static final float SLACK = 16;
+
+    private final int columns, rows;
+    private final float cellWidth, cellHeight;
+    private final Torus torus;
+
+    private LuminousEntity[] items;
+    private int[] start;
+    private int[] cells;
+    private boolean stale;
+
+    public CellIndex(int columns, int rows, int cellWidth, int cellHeight,
+            Torus torus) {
+        this.torus = torus;
+        this.columns = columns;
+        this.rows = rows;
+        this.cellWidth = cellWidth;
+        this.cellHeight = cellHeight;
+        items = new LuminousEntity[0];
+        cells = new int[0];
+        start = new int[columns * rows + 1];
+        stale = true;
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Fill out with entities whose centers are within radius of (x, y).
+     */
+    public void within(EntityStore store, float x, float y, float radius,
+            Roles role, Object exclude, Neighbors out) {
+        refresh(store);
+        float r2 = radius * radius;
+        float reach = radius + SLACK;
+        int x0 = (int) Math.floor((x - reach) / cellWidth);
+        int x1 = (int) Math.floor((x + reach) / cellWidth);
+        int y0 = (int) Math.floor((y - reach) / cellHeight);
+        int y1 = (int) Math.floor((y + reach) / cellHeight);
+        // don't visit a cell twice when the search reaches all the way round
+        if (x1 - x0 >= columns) {
+            x0 = 0;
+            x1 = columns - 1;
+        }
+        if (y1 - y0 >= rows) {
+            y0 = 0;
+            y1 = rows - 1;
+        }
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                scan(cell(cx, cy), x, y, r2, role, exclude, out);
+            }
+        }
+    }
+
+    /**
+     * Fill out with as many of the entities nearest (x, y) as it will hold.
+     *
+     * Searches outward one ring of cells at a time and stops once nothing in
+     * the next ring could be nearer than the furthest entity found so far.
+     */
+    public void nearest(EntityStore store, float x, float y, Roles role,
+            Object exclude, Neighbors out) {
+        refresh(store);
+        int cx = column(x), cy = row(y);
+        int rings = Math.max(columns, rows) / 2 + 1;
+        float cell = Math.min(cellWidth, cellHeight);
+        for (int r = 0; r < rings; r++) {
+            for (int j = -r; j <= r; j++) {
+                if (!canonical(j, rows)) {
+                    continue;
+                }
+                // only the edges of the ring, its inside was searched already
+                int step = (j == -r || j == r) ? 1 : Math.max(1, 2 * r);
+                for (int i = -r; i <= r; i += step) {
+                    if (canonical(i, columns)) {
+                        scan(cell(cx + i, cy + j), x, y,
+                                Float.POSITIVE_INFINITY, role, exclude, out);
+                    }
+                }
+            }
+            float bound = Math.max(0, r * cell - SLACK);
+            if (out.isFull() && out.furthest() <= bound * bound) {
+                return;
+            }
+        }
+    }
+
+    private void scan(int cell, float x, float y, float r2, Roles role,
+            Object exclude, Neighbors out) {
+        for (int k = start[cell]; k < start[cell + 1]; k++) {
+            LuminousEntity e = items[k];
+            if (e == exclude || (role != null && e.getRole() != role.ordinal())) {
+                continue;
+            }
+            float d2 = torus.distance2(x, y, e.getXCenter(), e.getYCenter());
+            if (d2 < r2) {
+                out.offer(e, d2);
+            }
+        }
+    }
+
+    private void refresh(EntityStore store) {
+        if (!stale) {
+            return;
+        }
+        int n = store.size();
+        if (items.length < n) {
+            items = new LuminousEntity[n * 2];
+            cells = new int[n * 2];
+        }
+        for (int c = 0; c < start.length; c++) {
+            start[c] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            LuminousEntity e = store.get(i);
+            cells[i] = row(e.getYCenter()) * columns + column(e.getXCenter());
+            start[cells[i] + 1]++;
+        }
+        for (int c = 1; c < start.length; c++) {
+            start[c] += start[c - 1];
+        }
+        // place each entity at its cell's next free slot, then undo the shift
+        for (int i = 0; i < n; i++) {
+            items[start[cells[i]]++] = store.get(i);
+        }
+        for (int c = start.length - 1; c > 0; c--) {
+            start[c] = start[c - 1];
+        }
+        start[0] = 0;
+        for (int i = n; i < items.length && items[i] != null; i++) {
+            items[i] = null;
+        }
+        stale = false;
+    }
+
+    /* Index of the cell at column cx, row cy, wrapping around the edges. */
+    private int cell(int cx, int cy) {
+        cx %= columns;
+        cy %= rows;
+        if (cx < 0) {
+            cx += columns;
+        }
+        if (cy < 0) {
+            cy += rows;
+        }
+        return cy * columns + cx;
+    }
+
+    /*
+     * Offsets d and d + n reach the same cell; only visit the one in
+     * (-n / 2, n / 2].
+     */
+    private static boolean canonical(int d, int n) {
+        return 2 * d > -n && 2 * d <= n;
+    }
+
+    private int column(float x) {
+        return clamp((int) Math.floor(x / cellWidth), columns);
+    }
+
+    private int row(float y) {
+        return clamp((int) Math.floor(y / cellHeight), rows);
+    }
+
+    private static int clamp(int i, int n) {
+        return Math.max(0, Math.min(n - 1, i));
+    }
+
+}
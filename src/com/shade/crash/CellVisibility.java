@@ -0,0 +1,486 @@
+package com.shade.crash;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.newdawn.slick.geom.Circle;
+import org.newdawn.slick.geom.Rectangle;
+import org.newdawn.slick.geom.Shape;
+
+import com.crash.Body;
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * Which pairs of cells can't see each other past the level's walls.
+ *
+ * A pair is marked blocked only when the grid's ray from any point in the
+ * first cell is certain to meet a wall before it can meet anything in the
+ * second. That takes a single wall which does two things.
+ *
+ * It has to be in the ray's way. The ray is com.crash.Ray, a box as wide as
+ * the body looking, up to twice WIDEST, running from its center as far as
+ * the other body's but turned off the line between them. Some line u = c
+ * across the gap between the cells, vertical or horizontal, must meet both
+ * long sides of every such box inside the wall, shrunk by INSET, while the
+ * box starts clear of the wall. Then a side of the box crosses the wall's
+ * outline, which is what the ray tests.
+ *
+ * It also has to be looked at in time. The grid only tests the bodies binned
+ * into the cells its walk goes through, and a wall is binned only into the
+ * cells its center and corners fall in. The walk steps one cell at a time,
+ * never turning back, from the cell the looking body is in until it meets
+ * something. So the wall has to be binned into every cell of a column, or a
+ * row, that the walk must pass through before it reaches any cell the other
+ * body can be binned into. The other body is taken to be no wider than the
+ * widest one looking and to have moved up to DRIFT since the grid last
+ * binned it.
+ *
+ * A pair which isn't marked may or may not be visible and has to be traced.
+ * Lines to or from wider bodies, or looking past a wall, always are.
+ *
+ * The cells are the collision grid's split SPLIT ways each side; walls are
+ * rarely much wider than a ray and a half, so coarser cells hide almost
+ * nothing.
+ *
+ * Walls are the bodies which are Immobile and push things out of themselves.
+ * Umbrellas and sand pits are left out since things stand in them, as are
+ * doors and sliders since they move, so opening a door never touches the
+ * table. Baking takes a good fraction of a second, so the level is expected
+ * to bake it once it's built; if an immobile body is added or removed after
+ * that it's baked again the next time it's asked.
+ */
+class CellVisibility {
+
+    /* How many cells each side of a grid cell is split into. */
+    private static final int SPLIT = 4;
+    /*
+     * How far inside a wall's outline a ray has to pass to count. It also
+     * covers the flats of a round wall's outline.
+     */
+    private static final float INSET = 1;
+    /* Spacing of the lines tried across a gap. */
+    private static final float STEP = 10;
+    /*
+     * Half the width of the widest body a line can be traced from or to, a
+     * bird, whose outline Slick makes 43 across.
+     */
+    private static final float WIDEST = 21.5f;
+    /* How far a body can have moved since the grid binned it. */
+    private static final float DRIFT = 16;
+    /*
+     * Slope of the ray against the line between the centers; com.crash.Ray
+     * turns its box 1.5 radians rather than a right angle.
+     */
+    private static final float SKEW = (float) Math.tan(Math.PI / 2 - 1.5);
+    /* Steepest slope, against square on, the ray may cross a line at. */
+    private static final float STEEPEST = 5;
+
+    private final int columns, rows;
+    private final float cellWidth, cellHeight;
+    // the collision grid's own cells
+    private final int gridColumns, gridRows;
+    private final int gridWidth, gridHeight;
+
+    private BitSet blocked;
+    // each wall's center and half its extent along x and y, or its radius
+    private float[] wallX, wallY, wallW, wallH;
+    private boolean[] round;
+    // the grid cells each wall is binned into, five to a wall, -1 for none
+    private int[] bins;
+    private int count;
+    /*
+     * Bit i of the words for grid cell g and cell b is set if the grid's
+     * walk from g looks at the ith wall before anything binned around b.
+     */
+    private long[] seen;
+    private int words;
+    // the lines tried across each axis, x = c then y = c, in order
+    private float[][] lines;
+    private float[] span;
+    private boolean stale;
+
+    public CellVisibility(int columns, int rows, int cellWidth, int cellHeight) {
+        this.columns = columns * SPLIT;
+        this.rows = rows * SPLIT;
+        this.cellWidth = (float) cellWidth / SPLIT;
+        this.cellHeight = (float) cellHeight / SPLIT;
+        gridColumns = columns;
+        gridRows = rows;
+        gridWidth = cellWidth;
+        gridHeight = cellHeight;
+        int n = this.columns * this.rows;
+        blocked = new BitSet(n * n);
+        lines = new float[2][];
+        span = new float[2];
+        grow(0);
+        stale = true;
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Return true if walls certainly stop the grid's ray from one to two.
+     *
+     * False means the line has to be traced. The table can't be trusted if
+     * either end is wider than it allows for or is a wall itself, or if a
+     * wall is to be looked past.
+     */
+    public boolean blocked(EntityStore store, Body one, Body two,
+            Body[] exceptions) {
+        if (isWall(one) || isWall(two)) {
+            return false;
+        }
+        if (one.getWidth() > 2 * WIDEST || two.getWidth() > 2 * WIDEST
+                || two.getHeight() > 2 * WIDEST) {
+            return false;
+        }
+        for (Body e : exceptions) {
+            if (isWall(e)) {
+                return false;
+            }
+        }
+        int a = cell(one.getXCenter(), one.getYCenter());
+        int b = cell(two.getXCenter(), two.getYCenter());
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        bake(store);
+        return blocked.get(a * columns * rows + b);
+    }
+
+    /**
+     * Work out which cells walls hide from each other, unless nothing has
+     * changed since it was last done.
+     */
+    public void bake(EntityStore store) {
+        if (!stale) {
+            return;
+        }
+        count = 0;
+        for (int i = 0; i < store.size(); i++) {
+            LuminousEntity e = store.get(i);
+            if (isWall(e) && e instanceof Shaped) {
+                add((Body) e, ((Shaped) e).getShape());
+            }
+        }
+        lines[0] = cover(false, columns * cellWidth);
+        lines[1] = cover(true, rows * cellHeight);
+        int n = columns * rows;
+        words = (count + 63) / 64;
+        seen = new long[gridColumns * gridRows * n * words];
+        for (int g = 0; g < gridColumns * gridRows; g++) {
+            for (int b = 0; b < n; b++) {
+                for (int i = 0; i < count; i++) {
+                    if (seenFirst(i, g / gridRows, g % gridRows, b / rows, b
+                            % rows)) {
+                        seen[(g * n + b) * words + i / 64] |= 1L << (i % 64);
+                    }
+                }
+            }
+        }
+        blocked.clear();
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                if (a != b && walled(a, b)) {
+                    blocked.set(a * n + b);
+                }
+            }
+        }
+        stale = false;
+    }
+
+    /* Note the wall's outline if it's one the bake understands. */
+    private void add(Body b, Shape s) {
+        boolean circle = s.getClass() == Circle.class;
+        if (!circle && s.getClass() != Rectangle.class) {
+            return;
+        }
+        if (count == round.length) {
+            grow(count * 2);
+        }
+        wallX[count] = b.getXCenter();
+        wallY[count] = b.getYCenter();
+        wallW[count] = circle ? ((Circle) s).radius : b.getWidth() / 2;
+        wallH[count] = circle ? ((Circle) s).radius : b.getHeight() / 2;
+        round[count] = circle;
+        // the same cells PartitionedGrid bins it into
+        float w = b.getWidth() - 1, h = b.getHeight() - 1;
+        int k = count * 5;
+        bins[k] = gridCell(b.getXCenter(), b.getYCenter());
+        bins[k + 1] = gridCell(b.getX(), b.getY());
+        bins[k + 2] = gridCell(b.getX() + w, b.getY());
+        bins[k + 3] = gridCell(b.getX(), b.getY() + h);
+        bins[k + 4] = gridCell(b.getX() + w, b.getY() + h);
+        count++;
+    }
+
+    /*
+     * Return the lines u = c to try, every STEP along the axis and through
+     * the middle of every wall, which is often the best place to cut sight
+     * lines.
+     */
+    private float[] cover(boolean horizontal, float extent) {
+        int steps = (int) (extent / STEP);
+        float[] at = new float[steps + 1 + count];
+        for (int i = 0; i <= steps; i++) {
+            at[i] = i * STEP;
+        }
+        for (int i = 0; i < count; i++) {
+            at[steps + 1 + i] = horizontal ? wallY[i] : wallX[i];
+        }
+        Arrays.sort(at);
+        return at;
+    }
+
+    /* Return true if a wall stops every ray from cell a to cell b. */
+    private boolean walled(int a, int b) {
+        int ax = a / rows, ay = a % rows;
+        int bx = b / rows, by = b % rows;
+        int g = (ax / SPLIT) * gridRows + ay / SPLIT;
+        int from = (g * columns * rows + b) * words;
+        if (none(from)) {
+            return false;
+        }
+        float ax0 = ax * cellWidth, ax1 = ax0 + cellWidth;
+        float ay0 = ay * cellHeight, ay1 = ay0 + cellHeight;
+        float bx0 = bx * cellWidth, bx1 = bx0 + cellWidth;
+        float by0 = by * cellHeight, by1 = by0 + cellHeight;
+        if (ax != bx
+                && across(false, ax0, ax1, ay0, ay1, bx0, bx1, by0, by1,
+                        from)) {
+            return true;
+        }
+        return ay != by
+                && across(true, ay0, ay1, ax0, ax1, by0, by1, bx0, bx1,
+                        from);
+    }
+
+    /* Return true if no wall is looked at in time, from the words at i. */
+    private boolean none(int i) {
+        for (int k = i; k < i + words; k++) {
+            if (seen[k] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Return true if some line u = c between box a, where the ray starts,
+     * and box b crosses a wall which stops every ray between them. The u
+     * axis is x, or y if horizontal; which walls are looked at in time is
+     * in the words of seen from the given one.
+     */
+    private boolean across(boolean horizontal, float au0, float au1,
+            float av0, float av1, float bu0, float bu1, float bv0, float bv1,
+            int from) {
+        // how far b is from a along each axis, at least and at most
+        float du0 = bu0 - au1, du1 = bu1 - au0;
+        float dv0 = bv0 - av1, dv1 = bv1 - av0;
+        boolean ahead = du0 > 0;
+        if (!ahead && du1 >= 0) {
+            return false;
+        }
+        // the line between the centers' slope against the u axis lies
+        // between these, and the ray's between those turned by SKEW
+        float s0 = Math.min(Math.min(dv0 / du0, dv0 / du1), Math.min(dv1
+                / du0, dv1 / du1));
+        float s1 = Math.max(Math.max(dv0 / du0, dv0 / du1), Math.max(dv1
+                / du0, dv1 / du1));
+        if (1 + s0 * SKEW <= 0 || 1 - s1 * SKEW <= 0) {
+            return false;
+        }
+        float t0 = (s0 - SKEW) / (1 + s0 * SKEW);
+        float t1 = (s1 + SKEW) / (1 - s1 * SKEW);
+        float t = Math.max(-t0, t1);
+        if (t >= STEEPEST) {
+            return false;
+        }
+        float cos = (float) (1 / Math.sqrt(1 + t * t)), sin = t * cos;
+        // how far the ray's sides reach out along u and v past its middle
+        float side = WIDEST * sin, wide = WIDEST / cos;
+        // how far the ray surely runs along u
+        float reach = (ahead ? du0 : -du1) * cos;
+        if (reach - 2 * side <= au1 - au0) {
+            return false;
+        }
+        float[] at = lines[horizontal ? 1 : 0];
+        float low = ahead ? au1 : bu1, high = ahead ? bu0 : au0;
+        for (int k = 0; k < words; k++) {
+            for (long bits = seen[from + k]; bits != 0; bits &= bits - 1) {
+                int i = k * 64 + Long.numberOfTrailingZeros(bits);
+                if (!clear(i, horizontal, au0 - WIDEST, au1 + WIDEST, av0
+                        - WIDEST, av1 + WIDEST)) {
+                    continue;
+                }
+                // the lines between the boxes which cross the wall
+                float u = horizontal ? wallY[i] : wallX[i];
+                float du = horizontal ? wallH[i] : wallW[i];
+                float start = Math.max(low, u - du);
+                float end = Math.min(high, u + du);
+                int l = Arrays.binarySearch(at, start);
+                for (l = (l < 0) ? -l - 1 : l; l < at.length && at[l] < end; l++) {
+                    float c = at[l];
+                    // how far along u the line is from the ray's start
+                    float p0 = c - au1, p1 = c - au0;
+                    float near = ahead ? p0 : -p1, far = ahead ? p1 : -p0;
+                    if (c <= start || near <= side || far + side > reach) {
+                        continue;
+                    }
+                    float lo = av0
+                            + Math.min(Math.min(p0 * t0, p0 * t1), Math.min(
+                                    p1 * t0, p1 * t1)) - wide;
+                    float hi = av1
+                            + Math.max(Math.max(p0 * t0, p0 * t1), Math.max(
+                                    p1 * t0, p1 * t1)) + wide;
+                    if (section(i, horizontal, c) && span[0] <= lo
+                            && span[1] >= hi) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Return true if the ith wall's bounds are clear of the box from u0 to
+     * u1 along u and v0 to v1 along v.
+     */
+    private boolean clear(int i, boolean horizontal, float u0, float u1,
+            float v0, float v1) {
+        float u = horizontal ? wallY[i] : wallX[i];
+        float v = horizontal ? wallX[i] : wallY[i];
+        float du = horizontal ? wallH[i] : wallW[i];
+        float dv = horizontal ? wallW[i] : wallH[i];
+        return u1 <= u - du || u0 >= u + du || v1 <= v - dv || v0 >= v + dv;
+    }
+
+    /*
+     * Return true if the grid's walk from grid cell (gx, gy) looks at the
+     * ith wall before anything binned around cell (bx, by).
+     *
+     * The walk goes through a cell in every column between the one it starts
+     * in and the one it meets the body in, all in rows between theirs, and
+     * likewise for rows.
+     */
+    private boolean seenFirst(int i, int gx, int gy, int bx, int by) {
+        float far = WIDEST + DRIFT;
+        int x0 = Math.max(0, (int) Math.floor((bx * cellWidth - far)
+                / gridWidth));
+        int x1 = Math.min(gridColumns - 1, (int) Math.floor(((bx + 1)
+                * cellWidth + far)
+                / gridWidth));
+        int y0 = Math.max(0, (int) Math.floor((by * cellHeight - far)
+                / gridHeight));
+        int y1 = Math.min(gridRows - 1, (int) Math.floor(((by + 1)
+                * cellHeight + far)
+                / gridHeight));
+        int top = Math.min(gy, y0), bottom = Math.max(gy, y1);
+        int left = Math.min(gx, x0), right = Math.max(gx, x1);
+        for (int x = gx; x < x0; x++) {
+            if (fills(i, x, x, top, bottom)) {
+                return true;
+            }
+        }
+        for (int x = gx; x > x1; x--) {
+            if (fills(i, x, x, top, bottom)) {
+                return true;
+            }
+        }
+        for (int y = gy; y < y0; y++) {
+            if (fills(i, left, right, y, y)) {
+                return true;
+            }
+        }
+        for (int y = gy; y > y1; y--) {
+            if (fills(i, left, right, y, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Return true if the ith wall is binned into every grid cell given. */
+    private boolean fills(int i, int x0, int x1, int y0, int y1) {
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                int c = x * gridRows + y, k = i * 5;
+                if (bins[k] != c && bins[k + 1] != c && bins[k + 2] != c
+                        && bins[k + 3] != c && bins[k + 4] != c) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Store where the ith wall, shrunk by INSET, crosses the line u = c in
+     * span. Return false if it doesn't.
+     */
+    private boolean section(int i, boolean horizontal, float c) {
+        float u = horizontal ? wallY[i] : wallX[i];
+        float v = horizontal ? wallX[i] : wallY[i];
+        float du = (horizontal ? wallH[i] : wallW[i]) - INSET;
+        float dv = (horizontal ? wallW[i] : wallH[i]) - INSET;
+        float d = c - u;
+        if (du <= 0 || dv <= 0 || Math.abs(d) >= du) {
+            return false;
+        }
+        if (round[i]) {
+            dv = (float) Math.sqrt(du * du - d * d);
+        }
+        span[0] = v - dv;
+        span[1] = v + dv;
+        return true;
+    }
+
+    /* Index of the cell holding the point, or -1 if it's off the grid. */
+    private int cell(float px, float py) {
+        int x = (int) Math.floor(px / cellWidth);
+        int y = (int) Math.floor(py / cellHeight);
+        if (x < 0 || x >= columns || y < 0 || y >= rows) {
+            return -1;
+        }
+        return x * rows + y;
+    }
+
+    /* Index of the grid cell holding the point, as PartitionedGrid has it. */
+    private int gridCell(float px, float py) {
+        int x = (int) Math.floor(px / gridWidth);
+        int y = (int) Math.floor(py / gridHeight);
+        if (x < 0 || x >= gridColumns || y < 0 || y >= gridRows) {
+            return -1;
+        }
+        return x * gridRows + y;
+    }
+
+    private void grow(int n) {
+        n = Math.max(n, 16);
+        float[] x = new float[n], y = new float[n];
+        float[] w = new float[n], h = new float[n];
+        boolean[] r = new boolean[n];
+        int[] c = new int[n * 5];
+        if (count > 0) {
+            System.arraycopy(wallX, 0, x, 0, count);
+            System.arraycopy(wallY, 0, y, 0, count);
+            System.arraycopy(wallW, 0, w, 0, count);
+            System.arraycopy(wallH, 0, h, 0, count);
+            System.arraycopy(round, 0, r, 0, count);
+            System.arraycopy(bins, 0, c, 0, count * 5);
+        }
+        wallX = x;
+        wallY = y;
+        wallW = w;
+        wallH = h;
+        round = r;
+        bins = c;
+    }
+
+    private static boolean isWall(Object o) {
+        return o instanceof Immobile && o instanceof Repelable;
+    }
+}
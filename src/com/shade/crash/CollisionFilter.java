@@ -0,0 +1,66 @@
+package com.shade.crash;
+
+import com.shade.entities.Roles;
+
+/**
+ * Which pairs of roles are worth testing for collisions.
+ *
+ * Most collision handlers only react to a few roles; a mushroom doesn't care
+ * that it has landed on a sand pit and neither does the sand pit. Declare
+ * what each role listens for and the grid skips every pair neither side
+ * listens to before testing whether they intersect.
+ *
+ * Roles are read as the pair is tested, so an entity which changes roles
+ * part way through a tick is filtered by its new role from then on.
+ */
+public class CollisionFilter {
+
+    private final int roles;
+    private final boolean[] pairs;
+
+    public CollisionFilter() {
+        roles = Roles.values().length;
+        pairs = new boolean[roles * roles];
+    }
+
+    /**
+     * Return a filter which lets every pair through.
+     */
+    public static CollisionFilter all() {
+        CollisionFilter f = new CollisionFilter();
+        for (Roles r : Roles.values()) {
+            f.listenToAll(r);
+        }
+        return f;
+    }
+
+    /**
+     * Note that entities performing role want to hear about collisions with
+     * entities performing any of others.
+     */
+    public CollisionFilter listen(Roles role, Roles... others) {
+        for (Roles o : others) {
+            pairs[role.ordinal() * roles + o.ordinal()] = true;
+            pairs[o.ordinal() * roles + role.ordinal()] = true;
+        }
+        return this;
+    }
+
+    /**
+     * Note that entities performing role want to hear about every collision.
+     */
+    public CollisionFilter listenToAll(Roles role) {
+        return listen(role, Roles.values());
+    }
+
+    /**
+     * Return true if either role listens for the other.
+     */
+    public boolean accepts(int one, int two) {
+        if (one < 0 || one >= roles || two < 0 || two >= roles) {
+            // roles from outside Roles aren't filtered
+            return true;
+        }
+        return pairs[one * roles + two];
+    }
+}
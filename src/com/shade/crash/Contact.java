@@ -0,0 +1,34 @@
+package com.shade.crash;
+
+/**
+ * How to separate two intersecting bodies: move the first depth pixels along
+ * (nx, ny), a unit vector, and they no longer overlap.
+ *
+ * Filled in by Narrowphase. Reuse one rather than allocating per test.
+ */
+public class Contact {
+
+    public float nx, ny;
+    public float depth;
+
+    /** Horizontal part of the minimum translation. */
+    public float getX() {
+        return nx * depth;
+    }
+
+    /** Vertical part of the minimum translation. */
+    public float getY() {
+        return ny * depth;
+    }
+
+    /** Return true if the bodies separate fastest along the x axis. */
+    public boolean alongX() {
+        return ny == 0;
+    }
+
+    void set(float nx, float ny, float depth) {
+        this.nx = nx;
+        this.ny = ny;
+        this.depth = depth;
+    }
+}
@@ -1,35 +1,88 @@
 package com.shade.crash;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
+import java.util.List;
 
 import org.newdawn.slick.state.StateBasedGame;
 
 import com.crash.Body;
-import com.crash.Grid;
 import com.crash.Response;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.entities.Basket;
+import com.shade.entities.Player;
+import com.shade.entities.Roles;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.Profiler;
 
 /**
  * Concrete instance of the Level interface which has a grid underlying it for
  * collision detection.
  *
  * Note that all entities added to this level must extend the com.crash.Body
- * class or a class cast exception will occur.
+ * class or a class cast exception will occur. Bodies which never move should
+ * implement Immobile so the grid bins them once instead of every tick, see
+ * {@link PartitionedGrid}.
+ *
+ * Entities are also filed by role so that the AI can look up the player, the
+ * basket, etc. without scanning every entity. An entity is filed under the
+ * role it reports when added and is refiled once per tick, so entities which
+ * change roles (mushrooms, moles) may be one tick behind.
+ *
+ * Entities added or removed while the level is updating, for instance a
+ * mushroom being picked or killed, are queued and applied in the order they
+ * were made at the end of the tick so that every entity is visited exactly
+ * once per update. Entities queued for removal aren't updated.
+ *
+ * Neighbor queries bucket entities into the same cells as the collision grid
+ * and fill a caller supplied Neighbors buffer, so the AI can ask who is
+ * nearby every tick without scanning the whole level or allocating. The
+ * level wraps at its edges; neighbor and line of sight queries look across
+ * the seams, see {@link Torus}.
+ *
+ * Sight lines are remembered for the rest of the tick once traced, so asking
+ * the same question twice only walks the grid once, see {@link SightLines}.
+ * Lines between cells the level's walls cut off from each other aren't traced
+ * at all, see {@link CellVisibility}.
  *
  * @author Alexander Schearer <aschearer@gmail.com>
  */
 public class CrashLevel implements Level<LuminousEntity> {
 
-    private Grid grid;
-    private LinkedList<LuminousEntity> entities;
+    private PartitionedGrid grid;
+    private Torus torus;
+    private CellIndex cells;
+    private SightLines sight;
+    private CellVisibility walls;
+    // range of the line of sight still inside the box being tested
+    private float[] clip;
+    private EntityStore entities;
+    private ArrayList<LuminousEntity>[] roles;
+    private List<LuminousEntity>[] views;
+    private boolean updating;
+    // adds and removes made while updating, in order; set bits are adds
+    private ArrayList<LuminousEntity> queued;
+    private BitSet adds;
+    private IdentityHashMap<LuminousEntity, Boolean> removing;
 
     public CrashLevel(int w, int h, int c) {
-        entities = new LinkedList<LuminousEntity>();
-        grid = new Grid(w, h, c);
+        entities = new EntityStore();
+        queued = new ArrayList<LuminousEntity>();
+        adds = new BitSet();
+        removing = new IdentityHashMap<LuminousEntity, Boolean>();
+        initRoles();
+        grid = new PartitionedGrid(w, h, c);
+        grid.setFilter(interests());
+        torus = new Torus(getWidth(), getHeight());
+        clip = new float[2];
+        sight = new SightLines();
+        walls = new CellVisibility(grid.width, grid.height, grid.cellWidth,
+                grid.cellHeight);
+        cells = new CellIndex(grid.width, grid.height, grid.cellWidth,
+                grid.cellHeight, torus);
         grid.setResponse(new Response() {
 
             public void respond(Body one, Body two) {
@@ -43,41 +96,237 @@ public class CrashLevel implements Level<LuminousEntity> {
         });
     }
 
+    /*
+     * What each role's collision handlers react to, whatever state the
+     * entity is in. Add to this when a handler starts looking at a new role
+     * or it will never be told.
+     */
+    private static CollisionFilter interests() {
+        CollisionFilter f = new CollisionFilter();
+        // spawning mushrooms, moles and treasure only care that they're clear
+        f.listenToAll(Roles.SPAWNLING);
+        f.listen(Roles.PLAYER, Roles.BASKET, Roles.MONSTER, Roles.BIRD,
+                Roles.SANDPIT, Roles.OBSTACLE);
+        f.listen(Roles.MOCK_PLAYER, Roles.BASKET, Roles.MONSTER, Roles.BIRD,
+                Roles.SANDPIT, Roles.OBSTACLE);
+        f.listen(Roles.MONSTER, Roles.PLAYER, Roles.OBSTACLE);
+        f.listen(Roles.BIRD, Roles.PLAYER, Roles.BIRD);
+        f.listen(Roles.MUSHROOM, Roles.PLAYER, Roles.MOLE, Roles.BASKET,
+                Roles.OBSTACLE);
+        f.listen(Roles.TREASURE, Roles.PLAYER, Roles.MOLE, Roles.BASKET,
+                Roles.OBSTACLE);
+        f.listen(Roles.PICKED_MUSHROOM, Roles.BASKET, Roles.OBSTACLE);
+        // moles forget a target once they reach it, whatever it's become
+        f.listen(Roles.MOLE, Roles.MUSHROOM, Roles.PICKED_MUSHROOM,
+                Roles.TREASURE, Roles.OBSTACLE);
+        // doors open when the player walks into them
+        f.listen(Roles.OBSTACLE, Roles.PLAYER);
+        f.listen(Roles.BASKET, Roles.PICKED_MUSHROOM, Roles.TREASURE);
+        return f;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void initRoles() {
+        int n = Roles.values().length;
+        roles = new ArrayList[n];
+        views = new List[n];
+        for (int i = 0; i < n; i++) {
+            roles[i] = new ArrayList<LuminousEntity>();
+            views[i] = Collections.unmodifiableList(roles[i]);
+        }
+    }
+
+    /**
+     * Width of the level in pixels.
+     */
+    public int getWidth() {
+        return grid.width * grid.cellWidth;
+    }
+
+    /**
+     * Height of the level in pixels.
+     */
+    public int getHeight() {
+        return grid.height * grid.cellHeight;
+    }
+
+    public int getCellSize() {
+        return grid.cellWidth;
+    }
+
+    /**
+     * Geometry for this level taking into account that its edges wrap.
+     */
+    public Torus getTorus() {
+        return torus;
+    }
+
     public void add(LuminousEntity e) {
+        if (updating) {
+            adds.set(queued.size());
+            queued.add(e);
+            return;
+        }
+        if (entities.contains(e)) {
+            return;
+        }
         e.addToLevel(this);
         entities.add(e);
         grid.add((Body) e);
+        cells.invalidate();
+        sight.forget();
+        if (e instanceof Immobile) {
+            walls.invalidate();
+        }
+        file(e);
     }
 
     public void remove(LuminousEntity e) {
-        e.removeFromLevel(this);
-        entities.remove(e);
+        if (updating) {
+            queued.add(e);
+            removing.put(e, Boolean.TRUE);
+            return;
+        }
+        // entities like to remove themselves when told they've been removed
+        if (!entities.remove(e)) {
+            return;
+        }
         grid.remove((Body) e);
+        cells.invalidate();
+        sight.forget();
+        if (e instanceof Immobile) {
+            walls.invalidate();
+        }
+        unfile(e);
+        e.removeFromLevel(this);
     }
 
     public Object[] getEntitiesByRole(int role) {
-        LinkedList<LuminousEntity> players = new LinkedList<LuminousEntity>();
-        for (LuminousEntity e : entities) {
-            if (e.getRole() == role) {
-                players.add(e);
+        if (!validRole(role)) {
+            return new Object[0];
+        }
+        return roles[role].toArray();
+    }
+
+    /**
+     * Return a read only view of the entities which perform the given role.
+     *
+     * The view is backed by the level so don't hold on to it across ticks if
+     * you want a snapshot.
+     */
+    public List<LuminousEntity> getEntitiesByRole(Roles role) {
+        return views[role.ordinal()];
+    }
+
+    /** Return the first entity performing the role or null if none exist. */
+    public LuminousEntity getEntityByRole(Roles role) {
+        ArrayList<LuminousEntity> filed = roles[role.ordinal()];
+        return (filed.isEmpty()) ? null : filed.get(0);
+    }
+
+    /** Return the player or null if the player has been removed. */
+    public Player getPlayer() {
+        return (Player) getEntityByRole(Roles.PLAYER);
+    }
+
+    /** Return the basket or null if this level doesn't have one. */
+    public Basket getBasket() {
+        return (Basket) getEntityByRole(Roles.BASKET);
+    }
+
+    private boolean validRole(int role) {
+        return role >= 0 && role < roles.length;
+    }
+
+    private void file(LuminousEntity e) {
+        int role = e.getRole();
+        if (validRole(role)) {
+            roles[role].add(e);
+        }
+    }
+
+    private void unfile(LuminousEntity e) {
+        int role = e.getRole();
+        if (validRole(role) && roles[role].remove(e)) {
+            return;
+        }
+        // the entity changed roles since it was last filed
+        for (ArrayList<LuminousEntity> filed : roles) {
+            if (filed.remove(e)) {
+                return;
             }
         }
-        return players.toArray();
     }
 
-    public void clear() {
-        for (Entity e : entities) {
-            e.removeFromLevel(this);
+    private void refile() {
+        for (ArrayList<LuminousEntity> filed : roles) {
+            filed.clear();
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            file(entities.get(i));
         }
+    }
+
+    public void clear() {
+        LuminousEntity[] cleared = toArray();
         entities.clear();
         grid.clear();
+        cells.invalidate();
+        sight.forget();
+        walls.invalidate();
+        for (ArrayList<LuminousEntity> filed : roles) {
+            filed.clear();
+        }
+        queued.clear();
+        adds.clear();
+        removing.clear();
+        for (Entity e : cleared) {
+            e.removeFromLevel(this);
+        }
     }
 
     public void update(StateBasedGame game, int delta) {
+        long start = Profiler.start();
+        updating = true;
+        refile();
+        cells.invalidate();
+        long collisions = Profiler.start();
         grid.update();
+        Profiler.stop(Profiler.Scope.GRID, collisions);
+        sight.forget();
         for (int i = 0; i < entities.size(); i++) {
-            entities.get(i).update(game, delta);
+            LuminousEntity e = entities.get(i);
+            if (removing.isEmpty() || !removing.containsKey(e)) {
+                e.update(game, delta);
+            }
+        }
+        updating = false;
+        cells.invalidate();
+        flush();
+        Profiler.stop(Profiler.Scope.LEVEL, start);
+    }
+
+    /* Apply the adds and removes which were queued during the update. */
+    private void flush() {
+        for (int i = 0; i < queued.size(); i++) {
+            if (adds.get(i)) {
+                add(queued.get(i));
+            } else {
+                remove(queued.get(i));
+            }
         }
+        queued.clear();
+        adds.clear();
+        removing.clear();
+    }
+
+    /**
+     * Work out now which cells the walls hide from each other, rather than
+     * on the first sight line traced, which could be in the middle of play.
+     * Call this once the level is built.
+     */
+    public void bake() {
+        walls.bake(entities);
     }
 
     public LuminousEntity[] toArray(LuminousEntity[] a) {
@@ -88,31 +337,153 @@ public class CrashLevel implements Level<LuminousEntity> {
         return entities.toArray(new LuminousEntity[0]);
     }
 
+    /**
+     * Counts of how sight lines have been answered.
+     */
+    public SightLines getSightLines() {
+        return sight;
+    }
+
+    /**
+     * Return true if nothing stands between the two entities.
+     *
+     * A line already traced this tick, between the same two entities and
+     * looking past the same exceptions, is answered from memory as long as
+     * neither end has moved since. Lines between cells which walls cut off
+     * from each other are blocked without being traced.
+     *
+     * If the short way between them crosses an edge the grid, which doesn't
+     * wrap, can't trace it. In that case the line is tested against the
+     * bounds of every other entity instead, as well as their copies on the
+     * far side of whichever seams the line crosses.
+     */
     public boolean lineOfSight(Entity one, Entity two, Body... exceptions) {
-        return grid.ray((Body) one, (Body) two, exceptions);
+        Body b1 = (Body) one;
+        Body b2 = (Body) two;
+        int known = sight.recall(b1, b2, exceptions);
+        if (known >= 0) {
+            return known == 1;
+        }
+        boolean visible = trace(b1, b2, exceptions);
+        sight.remember(b1, b2, exceptions, visible);
+        return visible;
     }
 
-    public LuminousEntity[] nearbyEntities(final Entity subject, int threshold) {
-        int threshold2 = threshold * threshold;
-        LinkedList<LuminousEntity> neighbors = new LinkedList<LuminousEntity>();
-        for (LuminousEntity e : entities) {
-            if (CrashGeom.distance2((Body) subject, (Body) e) < threshold2) {
-                neighbors.add(e);
+    private boolean trace(Body b1, Body b2, Body[] exceptions) {
+        float x = b1.getXCenter(), y = b1.getYCenter();
+        if (!torus.crossesSeam(x, y, b2.getXCenter(), b2.getYCenter())) {
+            if (walls.blocked(entities, b1, b2, exceptions)) {
+                sight.cull();
+                return false;
             }
+            return grid.ray(b1, b2, exceptions);
         }
+        float dx = torus.dx(x, b2.getXCenter());
+        float dy = torus.dy(y, b2.getYCenter());
+        // the copies worth checking are those the far end of the line is in
+        float sx = (x + dx < 0) ? -torus.getWidth()
+                : (x + dx > torus.getWidth()) ? torus.getWidth() : 0;
+        float sy = (y + dy < 0) ? -torus.getHeight()
+                : (y + dy > torus.getHeight()) ? torus.getHeight() : 0;
+        for (int i = 0; i < entities.size(); i++) {
+            Body b = (Body) entities.get(i);
+            if (b == b1 || b == b2 || excepted(b, exceptions)) {
+                continue;
+            }
+            if (crosses(x, y, dx, dy, b, 0, 0) || crosses(x, y, dx, dy, b, sx, 0)
+                    || crosses(x, y, dx, dy, b, 0, sy)
+                    || crosses(x, y, dx, dy, b, sx, sy)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        Collections.sort(neighbors, new Comparator<LuminousEntity>() {
-
-            public int compare(LuminousEntity e1, LuminousEntity e2) {
-                float d1 = CrashGeom.distance2((Body) subject, (Body) e1);
-                float d2 = CrashGeom.distance2((Body) subject, (Body) e2);
-                return (int) (d1 - d2);
+    private static boolean excepted(Body b, Body[] exceptions) {
+        for (Body e : exceptions) {
+            if (e == b) {
+                return true;
             }
+        }
+        return false;
+    }
 
-        });
+    /*
+     * Return true if the segment from (x, y) along (dx, dy) passes through the
+     * body's bounds shifted by (sx, sy).
+     */
+    private boolean crosses(float x, float y, float dx, float dy, Body b,
+            float sx, float sy) {
+        clip[0] = 0;
+        clip[1] = 1;
+        return clip(x, dx, b.getX() + sx, b.getWidth())
+                && clip(y, dy, b.getY() + sy, b.getHeight());
+    }
+
+    /*
+     * Narrow the part of the segment which lies inside the box along one
+     * axis, returning false once nothing is left.
+     */
+    private boolean clip(float p, float d, float min, float size) {
+        if (d == 0) {
+            return p >= min && p <= min + size;
+        }
+        float t0 = (min - p) / d;
+        float t1 = (min + size - p) / d;
+        clip[0] = Math.max(clip[0], Math.min(t0, t1));
+        clip[1] = Math.min(clip[1], Math.max(t0, t1));
+        return clip[0] <= clip[1];
+    }
 
-        return neighbors.toArray(new LuminousEntity[0]);
+    /**
+     * Fill out with the entities within radius of the subject, nearest first.
+     *
+     * The subject itself is skipped. If more entities are in range than out
+     * can hold only the nearest are kept.
+     *
+     * @param role
+     *            Only consider entities performing this role, or null for any.
+     */
+    public void within(Entity subject, float radius, Roles role, Neighbors out) {
+        Body b = (Body) subject;
+        out.clear();
+        cells.within(entities, b.getXCenter(), b.getYCenter(), radius, role,
+                subject, out);
+    }
+
+    /**
+     * Fill out with the entities nearest to the subject, nearest first.
+     *
+     * Finds as many as out can hold; the subject itself is skipped.
+     *
+     * @param role
+     *            Only consider entities performing this role, or null for any.
+     */
+    public void nearest(Entity subject, Roles role, Neighbors out) {
+        Body b = (Body) subject;
+        out.clear();
+        cells.nearest(entities, b.getXCenter(), b.getYCenter(), role, subject,
+                out);
+    }
+
+    /**
+     * Return every entity within threshold of the subject, nearest first,
+     * including the subject.
+     *
+     * Allocates a fresh array on each call; prefer
+     * {@link #within(Entity, float, Roles, Neighbors)} for anything which runs
+     * every tick.
+     */
+    public LuminousEntity[] nearbyEntities(Entity subject, int threshold) {
+        Neighbors found = new Neighbors(entities.size());
+        Body b = (Body) subject;
+        cells.within(entities, b.getXCenter(), b.getYCenter(), threshold, null,
+                null, found);
+        LuminousEntity[] neighbors = new LuminousEntity[found.size()];
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i] = found.get(i);
+        }
+        return neighbors;
     }
-    
 
 }
@@ -0,0 +1,93 @@
+package com.shade.crash;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * An array backed bag of entities with constant time removal.
+ *
+ * Each entity is assigned a slot when added. Removing an entity moves the last
+ * entity into the vacated slot so the array never has holes; the handle table
+ * keeps track of where everyone ended up. Iteration order is therefore not
+ * insertion order, but it is deterministic given the same adds and removes.
+ */
+class EntityStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private LuminousEntity[] entities;
+    private int size;
+    private IdentityHashMap<LuminousEntity, Integer> handles;
+
+    public EntityStore() {
+        entities = new LuminousEntity[INITIAL_CAPACITY];
+        handles = new IdentityHashMap<LuminousEntity, Integer>();
+    }
+
+    /**
+     * Add the entity and return its slot; adding an entity twice is a no-op.
+     */
+    public int add(LuminousEntity e) {
+        Integer handle = handles.get(e);
+        if (handle != null) {
+            return handle;
+        }
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+        }
+        entities[size] = e;
+        handles.put(e, size);
+        return size++;
+    }
+
+    /**
+     * Remove the entity by swapping the last entity into its slot.
+     *
+     * @return false if the entity wasn't in the store.
+     */
+    public boolean remove(LuminousEntity e) {
+        Integer handle = handles.remove(e);
+        if (handle == null) {
+            return false;
+        }
+        int last = --size;
+        if (handle != last) {
+            entities[handle] = entities[last];
+            handles.put(entities[handle], handle);
+        }
+        entities[last] = null;
+        return true;
+    }
+
+    public boolean contains(LuminousEntity e) {
+        return handles.containsKey(e);
+    }
+
+    public LuminousEntity get(int i) {
+        return entities[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        handles.clear();
+        size = 0;
+    }
+
+    public LuminousEntity[] toArray(LuminousEntity[] a) {
+        if (a.length < size) {
+            a = Arrays.copyOf(a, size);
+        }
+        System.arraycopy(entities, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+}
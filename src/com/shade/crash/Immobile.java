@@ -0,0 +1,12 @@
+package com.shade.crash;
+
+/**
+ * A body which never moves once it has been added to a level.
+ *
+ * The level bins immobile bodies into its collision grid once, when they're
+ * added, rather than every tick, and never tests them against each other.
+ * Anything which can be pushed, slid or opened must not implement this.
+ */
+public interface Immobile {
+
+}
@@ -0,0 +1,181 @@
+package com.shade.crash;
+
+import org.newdawn.slick.geom.Circle;
+import org.newdawn.slick.geom.Rectangle;
+import org.newdawn.slick.geom.Shape;
+
+import com.crash.Body;
+import com.crash.Detection;
+
+/**
+ * Exact intersection tests for the shapes bodies actually use.
+ *
+ * Nearly everything in a level is a circle or an axis aligned rectangle.
+ * Those pairs are tested here directly from the bodies' centers and bounds,
+ * without building polygons or allocating, and each test can fill in a
+ * Contact with the minimum translation which separates the two. Any other
+ * shape, a door swung open for instance, falls back to com.crash.Detection
+ * and the contact is worked out from the bounding boxes.
+ *
+ * Touching counts as intersecting for circles and rectangles, as it does in
+ * Slick; a circle has to reach strictly inside a rectangle.
+ */
+public final class Narrowphase {
+
+    private Narrowphase() {
+    }
+
+    /**
+     * Return true if the bodies intersect.
+     */
+    public static boolean intersects(Body a, Body b) {
+        return collide(a, b, null);
+    }
+
+    /**
+     * Return true if the bodies intersect, filling out, if it isn't null,
+     * with how to move a out of b.
+     */
+    public static boolean collide(Body a, Body b, Contact out) {
+        Shape sa = shape(a), sb = shape(b);
+        if (isCircle(sa)) {
+            float ra = ((Circle) sa).radius;
+            if (isCircle(sb)) {
+                return circles(a.getXCenter(), a.getYCenter(), ra, b
+                        .getXCenter(), b.getYCenter(), ((Circle) sb).radius,
+                        out);
+            }
+            if (isBox(sb)) {
+                return circleBox(a.getXCenter(), a.getYCenter(), ra, b
+                        .getX(), b.getY(), b.getX() + b.getWidth(), b.getY()
+                        + b.getHeight(), out);
+            }
+        } else if (isBox(sa)) {
+            if (isCircle(sb)) {
+                if (!circleBox(b.getXCenter(), b.getYCenter(),
+                        ((Circle) sb).radius, a.getX(), a.getY(), a.getX()
+                                + a.getWidth(), a.getY() + a.getHeight(), out)) {
+                    return false;
+                }
+                if (out != null) {
+                    out.set(-out.nx, -out.ny, out.depth);
+                }
+                return true;
+            }
+            if (isBox(sb)) {
+                return boxes(a, b, out);
+            }
+        }
+        if (!Detection.intersecting(a, b)) {
+            return false;
+        }
+        if (out != null) {
+            boxes(a, b, out);
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the bodies' bounding boxes overlap, filling out, if it
+     * isn't null, with how to move a's box out of b's.
+     */
+    public static boolean boxes(Body a, Body b, Contact out) {
+        return boxes(a.getX(), a.getY(), a.getX() + a.getWidth(), a.getY()
+                + a.getHeight(), b.getX(), b.getY(), b.getX() + b.getWidth(),
+                b.getY() + b.getHeight(), out);
+    }
+
+    /**
+     * Return true if the circles at (ax, ay) and (bx, by) intersect. The
+     * contact moves the first along the line between the centers, or right
+     * if they share a center.
+     */
+    public static boolean circles(float ax, float ay, float ar, float bx,
+            float by, float br, Contact out) {
+        float dx = ax - bx, dy = ay - by;
+        float reach = ar + br;
+        float d2 = dx * dx + dy * dy;
+        if (d2 > reach * reach) {
+            return false;
+        }
+        if (out != null) {
+            float d = (float) Math.sqrt(d2);
+            if (d == 0) {
+                out.set(1, 0, reach);
+            } else {
+                out.set(dx / d, dy / d, reach - d);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the circle intersects the box. The contact moves the
+     * circle away from the nearest point on the box, or out through the
+     * nearest side if its center is inside.
+     */
+    public static boolean circleBox(float cx, float cy, float r,
+            float minX, float minY, float maxX, float maxY, Contact out) {
+        float px = Math.max(minX, Math.min(cx, maxX));
+        float py = Math.max(minY, Math.min(cy, maxY));
+        float dx = cx - px, dy = cy - py;
+        float d2 = dx * dx + dy * dy;
+        if (d2 > 0) {
+            if (d2 >= r * r) {
+                return false;
+            }
+            if (out != null) {
+                float d = (float) Math.sqrt(d2);
+                out.set(dx / d, dy / d, r - d);
+            }
+            return true;
+        }
+        if (out != null) {
+            // inside, leave by whichever side is closest
+            float left = cx - minX, right = maxX - cx;
+            float top = cy - minY, bottom = maxY - cy;
+            float x = Math.min(left, right), y = Math.min(top, bottom);
+            if (x < y) {
+                out.set((left < right) ? -1 : 1, 0, x + r);
+            } else {
+                out.set(0, (top < bottom) ? -1 : 1, y + r);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if the boxes overlap. The contact moves the first along
+     * whichever axis they overlap least on, preferring y on a tie.
+     */
+    public static boolean boxes(float aMinX, float aMinY, float aMaxX,
+            float aMaxY, float bMinX, float bMinY, float bMaxX, float bMaxY,
+            Contact out) {
+        if (aMinX > bMaxX || aMaxX < bMinX || aMinY > bMaxY || aMaxY < bMinY) {
+            return false;
+        }
+        if (out != null) {
+            float x = Math.min(aMaxX - bMinX, bMaxX - aMinX);
+            float y = Math.min(aMaxY - bMinY, bMaxY - aMinY);
+            if (x < y) {
+                out.set((aMinX + aMaxX < bMinX + bMaxX) ? -1 : 1, 0, x);
+            } else {
+                out.set(0, (aMinY + aMaxY < bMinY + bMaxY) ? -1 : 1, y);
+            }
+        }
+        return true;
+    }
+
+    private static Shape shape(Body b) {
+        return (b instanceof Shaped) ? ((Shaped) b).getShape() : null;
+    }
+
+    private static boolean isCircle(Shape s) {
+        return s != null && s.getClass() == Circle.class;
+    }
+
+    /* Subclasses such as RoundedRectangle aren't boxes. */
+    private static boolean isBox(Shape s) {
+        return s != null && s.getClass() == Rectangle.class;
+    }
+}
@@ -0,0 +1,104 @@
+package com.shade.crash;
+
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * A reusable buffer of entities ordered by their distance from some point.
+ *
+ * Filled by the neighbor queries on CrashLevel. A buffer made with a capacity
+ * holds at most that many entries; once full, offering an entity which is
+ * further away than every entry already held does nothing and a nearer one
+ * bumps the furthest. One made without grows to hold everything offered.
+ * Keep one of these around per caller so querying every tick doesn't touch
+ * the heap once it has grown to fit.
+ */
+public class Neighbors {
+
+    private LuminousEntity[] entities;
+    private float[] distances;
+    private int size;
+    private boolean bounded;
+
+    public Neighbors(int capacity) {
+        entities = new LuminousEntity[capacity];
+        distances = new float[capacity];
+        bounded = true;
+    }
+
+    public Neighbors() {
+        this(8);
+        bounded = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Return how many entities this can hold; unlimited if it grows. */
+    public int capacity() {
+        return bounded ? entities.length : Integer.MAX_VALUE;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return bounded && size == entities.length;
+    }
+
+    /** Return the i-th nearest entity. */
+    public LuminousEntity get(int i) {
+        return entities[i];
+    }
+
+    /** Return the squared distance to the i-th nearest entity. */
+    public float distance2(int i) {
+        return distances[i];
+    }
+
+    /** Return the squared distance to the furthest entity held. */
+    public float furthest() {
+        return (size == 0) ? Float.POSITIVE_INFINITY : distances[size - 1];
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entities[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Insert the entity in order, returning false if it didn't make the cut.
+     */
+    boolean offer(LuminousEntity e, float d2) {
+        if (!bounded && size == entities.length) {
+            grow();
+        }
+        int n = entities.length;
+        if (n == 0 || (size == n && d2 >= distances[n - 1])) {
+            return false;
+        }
+        int i = (size == n) ? n - 1 : size++;
+        while (i > 0 && distances[i - 1] > d2) {
+            entities[i] = entities[i - 1];
+            distances[i] = distances[i - 1];
+            i--;
+        }
+        entities[i] = e;
+        distances[i] = d2;
+        return true;
+    }
+
+    private void grow() {
+        int n = entities.length * 2;
+        LuminousEntity[] e = new LuminousEntity[n];
+        float[] d = new float[n];
+        System.arraycopy(entities, 0, e, 0, size);
+        System.arraycopy(distances, 0, d, 0, size);
+        entities = e;
+        distances = d;
+    }
+
+}
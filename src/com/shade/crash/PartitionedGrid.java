@@ -0,0 +1,309 @@
+package com.shade.crash;
+
+import org.newdawn.slick.geom.Vector2f;
+
+import com.crash.Body;
+import com.crash.Detection;
+import com.crash.Ray;
+import com.crash.Response;
+import com.shade.base.Entity;
+
+/**
+ * Collision grid which keeps bodies that never move apart from those that do.
+ *
+ * Behaves like com.crash.Grid: each body is binned into the cell its center
+ * falls in and the cells its corners fall in, bodies sharing a cell are
+ * tested against each other and the response is told about every pair which
+ * intersects, using the Narrowphase. Sight lines walk the cells the same way
+ * too.
+ *
+ * The difference is that Immobile bodies are binned once, the first update
+ * after one is added or removed, and kept in cells of their own. Each tick
+ * only the bodies which can move are binned again, and pairs of immobile
+ * bodies are never tested since nothing happens when they touch. Pairs the
+ * CollisionFilter turns down aren't tested either.
+ *
+ * Bodies are numbered in the order they're added and each cell is walked in
+ * that order, as if both kinds of body shared one list. That keeps the order
+ * responses are made in, and which body a sight line meets first, the same
+ * as a single grid holding everything.
+ */
+class PartitionedGrid {
+
+    public final int width, height;
+    public final int cellWidth, cellHeight;
+
+    private Response response;
+    private CollisionFilter filter;
+    private Bin moving, fixed;
+    private Bin[] active, still;
+    private boolean stale;
+    private int next;
+    // cells the body being binned has been put in so far
+    private int[] binned;
+
+    public PartitionedGrid(int w, int h, int c) {
+        width = w;
+        height = h;
+        cellWidth = c;
+        cellHeight = c;
+        moving = new Bin();
+        fixed = new Bin();
+        active = new Bin[w * h];
+        still = new Bin[w * h];
+        for (int i = 0; i < active.length; i++) {
+            active[i] = new Bin();
+            still[i] = new Bin();
+        }
+        binned = new int[5];
+        filter = CollisionFilter.all();
+    }
+
+    public void setResponse(Response r) {
+        response = r;
+    }
+
+    public void setFilter(CollisionFilter f) {
+        filter = f;
+    }
+
+    public void add(Body b) {
+        if (b instanceof Immobile) {
+            fixed.add(b, next++);
+            stale = true;
+        } else {
+            moving.add(b, next++);
+        }
+    }
+
+    public void remove(Body b) {
+        if (b instanceof Immobile) {
+            stale |= fixed.remove(b);
+        } else {
+            moving.remove(b);
+        }
+    }
+
+    public void clear() {
+        moving.clear();
+        fixed.clear();
+        stale = true;
+    }
+
+    public int countMoving() {
+        return moving.size;
+    }
+
+    public int countFixed() {
+        return fixed.size;
+    }
+
+    /**
+     * Bin the bodies and tell the response about every pair which
+     * intersects.
+     */
+    public void update() {
+        if (stale) {
+            partition(fixed, still);
+            stale = false;
+        }
+        partition(moving, active);
+        for (int i = 0; i < active.length; i++) {
+            if (active[i].size > 0) {
+                test(active[i], still[i]);
+            }
+        }
+    }
+
+    /*
+     * Test each body in the cell against those after it, skipping pairs
+     * where both are immobile.
+     */
+    private void test(Bin a, Bin s) {
+        int i = 0, j = 0;
+        while (i < a.size || j < s.size) {
+            if (movingFirst(a, i, s, j)) {
+                Body one = a.bodies[i++];
+                int k = i, l = j;
+                while (k < a.size || l < s.size) {
+                    Body two = movingFirst(a, k, s, l) ? a.bodies[k++]
+                            : s.bodies[l++];
+                    respond(one, two);
+                }
+            } else {
+                Body one = s.bodies[j++];
+                for (int k = i; k < a.size; k++) {
+                    respond(one, a.bodies[k]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Return true if, walking a cell from the ith moving and jth immobile
+     * body on, the moving one comes next. One of the two must be left.
+     */
+    private static boolean movingFirst(Bin a, int i, Bin s, int j) {
+        return j == s.size || (i < a.size && a.order[i] < s.order[j]);
+    }
+
+    private void respond(Body one, Body two) {
+        int r1 = ((Entity) one).getRole(), r2 = ((Entity) two).getRole();
+        if (filter.accepts(r1, r2) && Narrowphase.intersects(one, two)) {
+            response.respond(one, two);
+        }
+    }
+
+    /**
+     * Return true if the first body between the two is two itself.
+     *
+     * Uses the cells as binned by the last update.
+     */
+    public boolean ray(Body one, Body two, Body... exceptions) {
+        Ray ray = new Ray(one, two);
+        Vector2f d = ray.getDirection();
+        float ox = one.getXCenter(), oy = one.getYCenter();
+        int x = (int) Math.floor(ox / cellWidth);
+        int y = (int) Math.floor(oy / cellHeight);
+        // same stepping as com.crash.Grid so sight lines don't change
+        float stepX = (float) Math.sqrt(1 + d.y * d.y / d.x * d.x);
+        float stepY = (float) Math.sqrt(1 + d.x * d.x / d.y * d.y);
+        int dirX, dirY;
+        float nextX, nextY;
+        if (d.x < 0) {
+            dirX = -1;
+            nextX = (ox - x * cellWidth) * stepX;
+        } else {
+            dirX = 1;
+            nextX = ((1 + x) * cellWidth - ox) * stepX;
+        }
+        if (d.y < 0) {
+            dirY = -1;
+            nextY = (oy - y * cellHeight) * stepY;
+        } else {
+            dirY = 1;
+            nextY = ((1 + y) * cellHeight - oy) * stepY;
+        }
+        Body hit = null;
+        while (hit == null && inBounds(x, y)) {
+            hit = first(ray, active[x * height + y], still[x * height + y],
+                    exceptions);
+            if (nextX < nextY) {
+                nextX += stepX * cellWidth;
+                x += dirX;
+            } else {
+                nextY += stepY * cellHeight;
+                y += dirY;
+            }
+        }
+        return two == hit;
+    }
+
+    /* Return the first body in the cell the ray meets, or null. */
+    private Body first(Ray ray, Bin a, Bin s, Body[] exceptions) {
+        int i = 0, j = 0;
+        while (i < a.size || j < s.size) {
+            Body b = movingFirst(a, i, s, j) ? a.bodies[i++] : s.bodies[j++];
+            if (!excepted(b, exceptions) && Detection.intersecting(ray, b)) {
+                return b;
+            }
+        }
+        return null;
+    }
+
+    private static boolean excepted(Body b, Body[] exceptions) {
+        for (Body e : exceptions) {
+            if (e == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Empty the cells and bin every body in from. */
+    private void partition(Bin from, Bin[] cells) {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i].clear();
+        }
+        for (int i = 0; i < from.size; i++) {
+            Body b = from.bodies[i];
+            int order = from.order[i];
+            int n = 0;
+            binned[n++] = cell(b.getXCenter(), b.getYCenter());
+            float w = b.getWidth() - 1, h = b.getHeight() - 1;
+            binned[n++] = cell(b.getX(), b.getY());
+            binned[n++] = cell(b.getX() + w, b.getY());
+            binned[n++] = cell(b.getX(), b.getY() + h);
+            binned[n++] = cell(b.getX() + w, b.getY() + h);
+            for (int k = 0; k < n; k++) {
+                if (binned[k] >= 0 && !seen(k)) {
+                    cells[binned[k]].add(b, order);
+                }
+            }
+        }
+    }
+
+    /* Return true if the kth cell binned into is the same as an earlier one. */
+    private boolean seen(int k) {
+        for (int m = 0; m < k; m++) {
+            if (binned[m] == binned[k]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* Index of the cell holding the point, or -1 if it's off the grid. */
+    private int cell(float px, float py) {
+        int x = (int) Math.floor(px / cellWidth);
+        int y = (int) Math.floor(py / cellHeight);
+        return inBounds(x, y) ? x * height + y : -1;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /*
+     * Bodies in the order they were added, with the number each was given.
+     */
+    private static class Bin {
+
+        Body[] bodies = new Body[4];
+        int[] order = new int[4];
+        int size;
+
+        void add(Body b, int o) {
+            if (size == bodies.length) {
+                Body[] grown = new Body[size * 2];
+                int[] orders = new int[size * 2];
+                System.arraycopy(bodies, 0, grown, 0, size);
+                System.arraycopy(order, 0, orders, 0, size);
+                bodies = grown;
+                order = orders;
+            }
+            bodies[size] = b;
+            order[size] = o;
+            size++;
+        }
+
+        boolean remove(Body b) {
+            for (int i = 0; i < size; i++) {
+                if (bodies[i] == b) {
+                    System.arraycopy(bodies, i + 1, bodies, i, size - i - 1);
+                    System.arraycopy(order, i + 1, order, i, size - i - 1);
+                    bodies[--size] = null;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                bodies[i] = null;
+            }
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.shade.crash;
+
+import org.newdawn.slick.geom.Shape;
+
+/**
+ * A body which hands out its shape, so the narrow phase can pick a fast
+ * test for it.
+ *
+ * Bodies which don't implement this are tested with com.crash.Detection.
+ */
+public interface Shaped {
+
+    /**
+     * Return the shape the body collides with. Don't change it.
+     */
+    public Shape getShape();
+
+}
@@ -0,0 +1,202 @@
+package com.shade.crash;
+
+import java.util.Arrays;
+
+import com.crash.Body;
+
+/**
+ * Remembers the sight lines traced during the current tick and counts how
+ * each query was answered.
+ *
+ * A line is only reused when it's asked for again between the same two
+ * bodies, looking past the same exceptions, with neither end having moved
+ * since it was traced. Anything else which moved in the meantime is taken
+ * where it stood when the line was traced; the grid's cells are up to a tick
+ * old anyway. The level forgets every line at the start of each tick.
+ *
+ * Lines are looked up by hashing their ends, and the exceptions are copied
+ * into one shared array, so once the tables have grown to a tick's worth of
+ * lines neither remembering nor recalling one allocates.
+ *
+ * The counts run across ticks until reset, so the hit rate says how much
+ * tracing the memo is saving over a whole run.
+ */
+public class SightLines {
+
+    private Body[] from, to;
+    // centers of both ends when the line was traced, four to a line
+    private float[] ends;
+    private boolean[] clear;
+    // the exceptions of line i are except[first[i]] to except[first[i + 1] - 1]
+    private Body[] except;
+    private int[] first;
+    /*
+     * Lines hashed on their ends. heads holds one more than the newest line
+     * in each bucket, chain one more than the line before it, zero ending
+     * both.
+     */
+    private int[] heads, chain;
+    private int size;
+
+    private long queries, hits, culled;
+
+    SightLines() {
+        from = new Body[16];
+        to = new Body[16];
+        ends = new float[16 * 4];
+        clear = new boolean[16];
+        except = new Body[16];
+        first = new int[16 + 1];
+        heads = new int[32];
+        chain = new int[16];
+    }
+
+    /**
+     * Forget every line traced so far.
+     */
+    public void forget() {
+        Arrays.fill(from, 0, size, null);
+        Arrays.fill(to, 0, size, null);
+        Arrays.fill(except, 0, first[size], null);
+        Arrays.fill(heads, 0);
+        size = 0;
+    }
+
+    /**
+     * Return 1 if the line is remembered as clear, 0 if it's remembered as
+     * blocked and -1 if it has to be traced.
+     */
+    int recall(Body one, Body two, Body[] exceptions) {
+        queries++;
+        for (int i = heads[bucket(one, two)] - 1; i >= 0; i = chain[i] - 1) {
+            if (from[i] == one && to[i] == two && still(i, one, two)
+                    && same(i, exceptions)) {
+                hits++;
+                return clear[i] ? 1 : 0;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Note that the line was found blocked without being traced.
+     */
+    void cull() {
+        culled++;
+    }
+
+    /**
+     * Note what tracing the line found.
+     */
+    void remember(Body one, Body two, Body[] exceptions, boolean visible) {
+        if (size == from.length) {
+            grow();
+        }
+        int start = first[size];
+        if (start + exceptions.length > except.length) {
+            except = Arrays.copyOf(except, Math.max(except.length * 2, start
+                    + exceptions.length));
+        }
+        System.arraycopy(exceptions, 0, except, start, exceptions.length);
+        first[size + 1] = start + exceptions.length;
+        from[size] = one;
+        to[size] = two;
+        ends[size * 4] = one.getXCenter();
+        ends[size * 4 + 1] = one.getYCenter();
+        ends[size * 4 + 2] = two.getXCenter();
+        ends[size * 4 + 3] = two.getYCenter();
+        clear[size] = visible;
+        link(size);
+        size++;
+    }
+
+    /**
+     * Number of lines asked for since the counts were last reset.
+     */
+    public long getQueries() {
+        return queries;
+    }
+
+    /**
+     * Number of lines answered from memory rather than traced.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Number of lines the level's walls were known to block, so weren't
+     * traced.
+     */
+    public long getCulled() {
+        return culled;
+    }
+
+    /**
+     * Number of lines which had to be traced.
+     */
+    public long getTraced() {
+        return queries - hits - culled;
+    }
+
+    /**
+     * Fraction of queries answered from memory, zero if there were none.
+     */
+    public float getHitRate() {
+        return (queries == 0) ? 0 : (float) hits / queries;
+    }
+
+    public void reset() {
+        queries = 0;
+        hits = 0;
+        culled = 0;
+    }
+
+    /* Return true if neither end of the ith line has moved. */
+    private boolean still(int i, Body one, Body two) {
+        return ends[i * 4] == one.getXCenter()
+                && ends[i * 4 + 1] == one.getYCenter()
+                && ends[i * 4 + 2] == two.getXCenter()
+                && ends[i * 4 + 3] == two.getYCenter();
+    }
+
+    /* Return true if the ith line looked past the same exceptions. */
+    private boolean same(int i, Body[] exceptions) {
+        int start = first[i];
+        if (first[i + 1] - start != exceptions.length) {
+            return false;
+        }
+        for (int k = 0; k < exceptions.length; k++) {
+            if (except[start + k] != exceptions[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int bucket(Body one, Body two) {
+        int h = System.identityHashCode(one) * 31
+                + System.identityHashCode(two);
+        return (h ^ (h >>> 16)) & (heads.length - 1);
+    }
+
+    private void link(int i) {
+        int b = bucket(from[i], to[i]);
+        chain[i] = heads[b];
+        heads[b] = i + 1;
+    }
+
+    private void grow() {
+        int n = from.length * 2;
+        from = Arrays.copyOf(from, n);
+        to = Arrays.copyOf(to, n);
+        ends = Arrays.copyOf(ends, n * 4);
+        clear = Arrays.copyOf(clear, n);
+        first = Arrays.copyOf(first, n + 1);
+        chain = new int[n];
+        heads = new int[n * 2];
+        for (int i = 0; i < size; i++) {
+            link(i);
+        }
+    }
+}
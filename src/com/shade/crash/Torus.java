@@ -0,0 +1,114 @@
+package com.shade.crash;
+
+import com.crash.Body;
+import com.shade.util.Geom;
+
+/**
+ * Geometry on a playfield whose edges wrap around.
+ *
+ * Walk off the right side and you come back on the left, walk off the bottom
+ * and you come back at the top. Distances and angles here take the shortest
+ * way around rather than the straight line across the screen, so something
+ * just over the seam counts as close.
+ *
+ * Each CrashLevel owns one sized to the level; get it with
+ * CrashLevel.getTorus. Nothing here allocates.
+ */
+public class Torus {
+
+    /* How close to an edge a center gets before it is moved across. */
+    public static final float MARGIN = 5;
+
+    private final float width, height;
+
+    public Torus(float width, float height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    /** Return the shortest signed horizontal step from x to x1. */
+    public float dx(float x, float x1) {
+        return shortest(x1 - x, width);
+    }
+
+    /** Return the shortest signed vertical step from y to y1. */
+    public float dy(float y, float y1) {
+        return shortest(y1 - y, height);
+    }
+
+    public float distance2(float x, float y, float x1, float y1) {
+        float dx = dx(x, x1);
+        float dy = dy(y, y1);
+        return dx * dx + dy * dy;
+    }
+
+    /** Returns the wrapped distance squared between the two body's centers. */
+    public float distance2(Body one, Body two) {
+        return distance2(one.getXCenter(), one.getYCenter(), two.getXCenter(),
+                two.getYCenter());
+    }
+
+    public float distance(Body one, Body two) {
+        return (float) Math.sqrt(distance2(one, two));
+    }
+
+    /**
+     * Same as CrashGeom.calculateAngle but takes the shortest way around, so
+     * something following two towards one crosses the seam if it's closer.
+     */
+    public float calculateAngle(Body one, Body two) {
+        float dx = dx(two.getXCenter(), one.getXCenter());
+        float dy = dy(two.getYCenter(), one.getYCenter());
+        return Geom.calculateAngle(dx, dy, 0, 0);
+    }
+
+    /** Return true if the shortest way between the points crosses an edge. */
+    public boolean crossesSeam(float x, float y, float x1, float y1) {
+        return dx(x, x1) != x1 - x || dy(y, y1) != y1 - y;
+    }
+
+    /**
+     * Return where a center at x ends up, moving it to the other side if it
+     * is within MARGIN of the left or right edge.
+     */
+    public float wrapX(float x) {
+        return wrap(x, width);
+    }
+
+    /**
+     * Return where a center at y ends up, moving it to the other side if it
+     * is within MARGIN of the top or bottom edge.
+     */
+    public float wrapY(float y) {
+        return wrap(y, height);
+    }
+
+    private static float shortest(float d, float span) {
+        if (d > span / 2) {
+            return d - span;
+        }
+        if (d < -span / 2) {
+            return d + span;
+        }
+        return d;
+    }
+
+    private static float wrap(float v, float span) {
+        if (v <= MARGIN) {
+            return v + span - 2 * MARGIN;
+        }
+        if (v > span - MARGIN) {
+            return v - span + 2 * MARGIN;
+        }
+        return v;
+    }
+
+}
@@ -18,6 +18,7 @@ import com.shade.controls.MushroomCounter;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.lighting.LuminousEntity;
 import com.shade.states.MasterState;
+import com.shade.util.ResourceManager;
 
 public class Basket extends Linkable {
 
@@ -35,7 +36,7 @@ public class Basket extends Linkable {
     }
 
     private void initSprite() throws SlickException {
-        sprite = new Image("entities/basket/basket.png");
+        sprite = ResourceManager.image("entities/basket/basket.png");
     }
 
     private void initShape(float x, float y, float w, float h) {
@@ -1,6 +1,5 @@
 package com.shade.entities;
 
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Rectangle;
@@ -10,9 +9,12 @@ import org.newdawn.slick.geom.Vector2f;
 import org.newdawn.slick.state.StateBasedGame;
 
 import com.crash.Body;
+import com.shade.crash.Immobile;
+import com.shade.crash.Narrowphase;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
 
-public class Block extends Obstacle {
+public class Block extends Obstacle implements Immobile {
 
     public Block(int x, int y, int z, int d) throws SlickException {
         initShape(x, y, d, d);
@@ -21,7 +23,7 @@ public class Block extends Obstacle {
     }
 
     private void initSprite() throws SlickException {
-        sprite = new Image("entities/block/block.png");
+        sprite = ResourceManager.image("entities/block/block.png");
     }
 
     private void initShape(int x, int y, int w, int h) {
@@ -32,7 +34,7 @@ public class Block extends Obstacle {
      * Determine which corner points between the block and its shadow are
      * closest and then build a new polygon from the resulting points.
      */
-    public Shape castShadow(float direction, float depth) {
+    protected Shape shadowFor(float direction, float depth) {
         Vector2f v = Geom.calculateVector(zindex * depth, direction);
 
         Transform t = Transform.createTranslateTransform(v.x, v.y);
@@ -85,22 +87,15 @@ public class Block extends Obstacle {
     }
 
     public void repel(Body b) {
+        // push back along whichever axis the two overlap least on
+        if (!Narrowphase.boxes(b, this, contact)) {
+            return;
+        }
         float velx = b.getXVelocity();
         float vely = b.getYVelocity();
         float playerx = b.getXCenter();
         float playery = b.getYCenter();
-        // determine overlap
-        float right = playerx - b.getWidth() / 2
-                - (getXCenter() + getWidth() / 2);
-        float left = playerx + b.getWidth() / 2
-                - (getXCenter() - getWidth() / 2);
-        float top = playery - b.getHeight() / 2
-                - (getYCenter() + getHeight() / 2);
-        float bottom = playery + b.getHeight() / 2
-                - (getYCenter() - getHeight() / 2);
-        float minx = Math.min(Math.abs(right), Math.abs(left));
-        float miny = Math.min(Math.abs(top), Math.abs(bottom));
-        if (minx < miny) {
+        if (contact.alongX()) {
             // if we move, move AWAY from the block.
             if (Math.abs(playerx - getXCenter() - velx) < Math.abs(playerx
                     - getXCenter()))
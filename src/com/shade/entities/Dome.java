@@ -1,7 +1,6 @@
 package com.shade.entities;
 
 import org.newdawn.slick.Graphics;
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Circle;
 import org.newdawn.slick.geom.RoundedRectangle;
@@ -12,10 +11,13 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.crash.Body;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.crash.Immobile;
+import com.shade.crash.Narrowphase;
 import com.shade.crash.Repelable;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
 
-public class Dome extends Obstacle {
+public class Dome extends Obstacle implements Immobile {
 
     public Dome(int x, int y, int z, int d) throws SlickException {
         initShape(x, y, d);
@@ -24,7 +26,7 @@ public class Dome extends Obstacle {
     }
 
     private void initSprite() throws SlickException {
-        sprite = new Image("entities/dome/dome.png");
+        sprite = ResourceManager.image("entities/dome/dome.png");
     }
 
     private void initShape(int x, int y, int r) {
@@ -47,31 +49,23 @@ public class Dome extends Obstacle {
      * obviously will impact the odds of a mushroom being placed in said shadow.
      * But it's performant so I'm willing to accept that.
      */
-    public Shape castShadow(float direction, float depth) {
+    protected Shape shadowFor(float direction, float depth) {
         float r = ((Circle) shape).radius;
         float h = zindex * depth * 1.6f;
         float x = getXCenter();
         float y = getYCenter();
         Transform t = Transform.createRotateTransform(direction + 3.14f, x, y);
 
-        // TODO cache the rectangle and just rotate it
         RoundedRectangle rr = new RoundedRectangle(getX(), getY(), r * 2, h, r);
         return rr.transform(t);
     }
     
     public void repel(Body b) {
-        float playerx = b.getXCenter();
-        float playery = b.getYCenter();
-        float dist_x = playerx - getXCenter();
-        float dist_y = playery - getYCenter();
-        float mag = (float) Math.sqrt(dist_x * dist_x + dist_y * dist_y);
-        float playradius = b.getWidth() / 2;
-        float obstacleradius = getWidth() / 2;
-        float angle = (float) Math.atan2(dist_y, dist_x);
-        float move = (playradius + obstacleradius - mag) * 1.5f;
-        float x_move = (float) (Math.cos(angle) * move);
-        float y_move = (float) (Math.sin(angle) * move);
-        b.nudge(x_move, y_move);
+        if (!Narrowphase.collide(b, this, contact)) {
+            return;
+        }
+        // overshoot a little so b doesn't settle against the dome
+        b.nudge(contact.getX() * 1.5f, contact.getY() * 1.5f);
     }
 
 }
@@ -3,7 +3,6 @@ package com.shade.entities;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Rectangle;
 import org.newdawn.slick.geom.Shape;
@@ -16,6 +15,8 @@ import com.shade.base.Entity;
 import com.shade.base.Level;
 import com.shade.levels.Model;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
+import com.shade.util.SoundEffect;
 
 public class Door extends Obstacle {
 
@@ -23,7 +24,7 @@ public class Door extends Obstacle {
         TOP, RIGHT, BOTTOM, LEFT
     };
 
-    private static Sound open;
+    private static SoundEffect open;
 
     private ActiveSide softspot;
     private int times, timer;
@@ -35,7 +36,7 @@ public class Door extends Obstacle {
 
     static {
         try {
-            open = new Sound("entities/door/open.ogg");
+            open = ResourceManager.sound("entities/door/open.ogg");
         } catch (SlickException e) {
             e.printStackTrace();
         }
@@ -57,12 +58,12 @@ public class Door extends Obstacle {
 
     private void initResources(int r) throws SlickException {
         if (r == 0 || r == 2) {
-            door = new Image("entities/door/door-horizontal.png");
+            door = ResourceManager.image("entities/door/door-horizontal.png");
         }
         if (r == 1 || r == 3) {
-            door = new Image("entities/door/door-vertical.png");
+            door = ResourceManager.image("entities/door/door-vertical.png");
         }
-        arrow = new Image("entities/door/arrow.png");
+        arrow = ResourceManager.image("entities/door/arrow.png").copy();
         if (r == 0) {
             arrow.rotate(180);
         }
@@ -98,7 +99,7 @@ public class Door extends Obstacle {
         shape = new Rectangle(x, y, w, h);
     }
 
-    public Shape castShadow(float direction, float depth) {
+    protected Shape shadowFor(float direction, float depth) {
         Vector2f v = Geom.calculateVector(getZIndex() * depth, direction);
 
         Transform t = Transform.createTranslateTransform(v.x, v.y);
@@ -9,6 +9,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.crash.Body;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.crash.Shaped;
 import com.shade.lighting.LuminousEntity;
 
 /**
@@ -16,7 +17,7 @@ import com.shade.lighting.LuminousEntity;
  *
  * @author Alexander Schearer
  */
-public class Dummy extends Body implements LuminousEntity {
+public class Dummy extends Body implements LuminousEntity, Shaped {
     
     private float x, y;
     private Image sprite;
@@ -75,4 +76,7 @@ public class Dummy extends Body implements LuminousEntity {
         return getZIndex() - o.getZIndex();
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
@@ -1,6 +1,5 @@
 package com.shade.entities;
 
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Rectangle;
@@ -10,9 +9,12 @@ import org.newdawn.slick.geom.Vector2f;
 import org.newdawn.slick.state.StateBasedGame;
 
 import com.crash.Body;
+import com.shade.crash.Immobile;
+import com.shade.crash.Narrowphase;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
 
-public class Fence extends Obstacle {
+public class Fence extends Obstacle implements Immobile {
 
     public Fence(int x, int y, int z, int r) throws SlickException {
         int w = (r == 0) ? 120 : 11;
@@ -31,10 +33,10 @@ public class Fence extends Obstacle {
         if (w > h) {
             path = "entities/fence/fence.horizontal.png";
         }
-        sprite = new Image(path);
+        sprite = ResourceManager.image(path);
     }
 
-    public Shape castShadow(float direction, float depth) {
+    protected Shape shadowFor(float direction, float depth) {
         Vector2f v = Geom.calculateVector(zindex * depth, direction);
 
         Transform t = Transform.createTranslateTransform(v.x, v.y);
@@ -78,22 +80,15 @@ public class Fence extends Obstacle {
     }
 
     public void repel(Body b) {
+        // push back along whichever axis the two overlap least on
+        if (!Narrowphase.boxes(b, this, contact)) {
+            return;
+        }
         float velx = b.getXVelocity();
         float vely = b.getYVelocity();
         float playerx = b.getXCenter();
         float playery = b.getYCenter();
-        // determine overlap
-        float right = playerx - b.getWidth() / 2
-                - (getXCenter() + getWidth() / 2);
-        float left = playerx + b.getWidth() / 2
-                - (getXCenter() - getWidth() / 2);
-        float top = playery - b.getHeight() / 2
-                - (getYCenter() + getHeight() / 2);
-        float bottom = playery + b.getHeight() / 2
-                - (getYCenter() - getHeight() / 2);
-        float minx = Math.min(Math.abs(right), Math.abs(left));
-        float miny = Math.min(Math.abs(top), Math.abs(bottom));
-        if (minx < miny) {
+        if (contact.alongX()) {
             // if we move, move AWAY from the block.
             if (Math.abs(playerx - getXCenter() - velx) < Math.abs(playerx
                     - getXCenter()))
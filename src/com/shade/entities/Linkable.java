@@ -1,7 +1,11 @@
 package com.shade.entities;
 
 
+import org.newdawn.slick.geom.Shape;
+
 import com.crash.Body;
+import com.shade.crash.Shaped;
+import com.shade.crash.Torus;
 import com.shade.lighting.LuminousEntity;
 
 /**
@@ -13,7 +17,7 @@ import com.shade.lighting.LuminousEntity;
  *
  * @author Alexander Schearer <aschearer@gmail.com>
  */
-public abstract class Linkable extends Body implements LuminousEntity {
+public abstract class Linkable extends Body implements LuminousEntity, Shaped {
 
     public Linkable prev, next;
 
@@ -80,19 +84,12 @@ public abstract class Linkable extends Body implements LuminousEntity {
      * Checks whether a linkable is over the edge of the screen and wraps it if
      * it is.
      */
-    protected void testAndWrap() {
-        if (getXCenter() <= 5) {
-            shape.setCenterX(795);
-        }
-        if (getXCenter() > 795) {
-            shape.setCenterX(5);
-        }
-        if (getYCenter() <= 5) {
-            shape.setCenterY(595);
-        }
-        if (getYCenter() > 595) {
-            shape.setCenterY(5);
-        }
+    protected void testAndWrap(Torus torus) {
+        shape.setCenterX(torus.wrapX(getXCenter()));
+        shape.setCenterY(torus.wrapY(getYCenter()));
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
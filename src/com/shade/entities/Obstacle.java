@@ -2,17 +2,21 @@ package com.shade.entities;
 
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
+import org.newdawn.slick.geom.Shape;
 import org.newdawn.slick.state.StateBasedGame;
 
 import com.crash.Body;
 import com.crash.util.CrashGeom;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.crash.Contact;
 import com.shade.crash.Repelable;
+import com.shade.crash.Shaped;
 import com.shade.levels.Model;
 import com.shade.lighting.LuminousEntity;
+import com.shade.lighting.ShadowCache;
 
-abstract public class Obstacle extends Body implements LuminousEntity, Repelable{
+abstract public class Obstacle extends Body implements LuminousEntity, Repelable, Shaped {
     
     public static int maxRank;
     
@@ -21,6 +25,9 @@ abstract public class Obstacle extends Body implements LuminousEntity, Repelable
     protected Image sprite;
     
     private int rank = -1;
+    private ShadowCache shadows = new ShadowCache();
+    // reused by repel
+    protected Contact contact = new Contact();
     
     public int rank() {
         if (rank < 0) {
@@ -31,7 +38,7 @@ abstract public class Obstacle extends Body implements LuminousEntity, Repelable
     }
     
     private void calculateRank() {
-        Basket b = (Basket) model.getEntitiesByRole(Roles.BASKET.ordinal())[0];
+        Basket b = model.getBasket();
         
         float distance = CrashGeom.distance2(this, b);
         rank = (int) Math.ceil(distance / 100);
@@ -41,6 +48,23 @@ abstract public class Obstacle extends Body implements LuminousEntity, Repelable
         maxRank = Math.max(rank, maxRank);
     }
 
+    /**
+     * Obstacles are drawn every frame but rarely move, so hand back the last
+     * shadow until the sun or the obstacle has moved enough to matter.
+     */
+    public Shape castShadow(float direction, float depth) {
+        if (shadows.stale(direction, depth, shape)) {
+            shadows.set(shadowFor(shadows.angle(), depth));
+        }
+        return shadows.get();
+    }
+
+    /**
+     * Build the shadow cast by a light from the given direction and with the
+     * given depth.
+     */
+    protected abstract Shape shadowFor(float direction, float depth);
+
     public int getRole() {
         return Roles.OBSTACLE.ordinal();
     }
@@ -78,4 +102,7 @@ abstract public class Obstacle extends Body implements LuminousEntity, Repelable
         return getZIndex() - l.getZIndex();
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
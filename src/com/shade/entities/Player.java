@@ -4,7 +4,6 @@ import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.geom.Circle;
 import org.newdawn.slick.geom.Shape;
 import org.newdawn.slick.state.StateBasedGame;
@@ -15,13 +14,17 @@ import com.shade.base.util.State;
 import com.shade.base.util.StateManager;
 import com.shade.crash.CrashLevel;
 import com.shade.crash.Repelable;
+import com.shade.crash.Torus;
 import com.shade.entities.bird.Bird;
 import com.shade.entities.mushroom.Mushroom;
-import com.shade.entities.util.Sizzle2;
+import com.shade.entities.util.Sizzle;
 import com.shade.entities.util.Sparkler;
+import com.shade.lighting.LightProbes;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
+import com.shade.util.SoundEffect;
 
-public class Player extends Linkable {
+public class Player extends Linkable implements LightProbes {
 
 	public static final int INVINCIBLE_START = 3000;
 	public static final float MIN_SPEED = 2.4f;
@@ -37,12 +40,13 @@ public class Player extends Linkable {
 	private StateManager manager;
 	protected Image normal;
 	private float luminosity;
-	private Sound register, damage;
+	private SoundEffect register, damage;
 	private boolean impeded;
 	private float mileage;
 	protected int invincibleTimer, flipper, flipthreshold;
-	private Sizzle2[] sizzles;
+	private Sizzle sizzle;
 	private float speed;
+	private Torus torus;
 
 	public Player(int x, int y) throws SlickException {
 		initShape(x, y);
@@ -55,21 +59,10 @@ public class Player extends Linkable {
 	}
 
 	public void initSizzles() {
-		sizzles = new Sizzle2[8];
-		for (int i = 0; i < sizzles.length; i++) {
-			int x = (int) (Math.cos(Math.PI * 2 * i / 8) * getWidth() * 2 / 5);
-			int y = (int) (Math.sin(Math.PI * 2 * i / 8) * getHeight() * 2 / 5);
-			try {
-				sizzles[i] = new Sizzle2(this,10, x, y, "entities/sparkle/puff.png");
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		}
-	}
-
-	private void sizzle(Graphics g) {
-		for (int i = 0; i < sizzles.length; i++) {
-			sizzles[i].animate(g);
+		try {
+			sizzle = new Sizzle(this, 8, "entities/sparkle/puff.png");
+		} catch (Exception e) {
+			e.printStackTrace();
 		}
 	}
 
@@ -79,9 +72,9 @@ public class Player extends Linkable {
 	}
 
 	private void initResources() throws SlickException {
-		normal = new Image("entities/player/player.png");
-		register = new Sound("entities/player/register.ogg");
-		damage = new Sound("entities/player/hit.ogg");
+		normal = ResourceManager.image("entities/player/player.png");
+		register = ResourceManager.sound("entities/player/register.ogg");
+		damage = ResourceManager.sound("entities/player/hit.ogg");
 	}
 
 	private void initStates() {
@@ -142,19 +135,17 @@ public class Player extends Linkable {
 			}
 			if (invincibleTimer <= 0) {
 				normal.drawCentered(getXCenter(), getYCenter());
-				sizzle(g);
+				sizzle.render(game);
 			}
 		}
 
 		public void update(StateBasedGame game, int delta) {
 			testAndMove(game.getContainer().getInput(), delta);
-			testAndWrap();
-			for (int i = 0; i < sizzles.length; i++)
-				sizzles[i].update(delta);
+			testAndWrap(torus);
+			sizzle.update(delta);
 			impeded = false;
 			if(invincibleTimer-delta<0&&invincibleTimer>0)
-				for (int i = 0; i < sizzles.length; i++)
-				sizzles[i].resetTimer();
+				sizzle.reset();
 			if (invincibleTimer > 0) {
 				invincibleTimer -= delta;
 			}
@@ -206,8 +197,7 @@ public class Player extends Linkable {
 
 		public void enter() {
 			scatterShrooms();
-			for (int i = 0; i < sizzles.length; i++)
-				sizzles[i].resetTimer();
+			sizzle.reset();
 
 			timer = 0;
 			failmer = 0;
@@ -302,10 +292,7 @@ public class Player extends Linkable {
 	}
 
 	public float getLuminosity() {
-		float max = 0;
-		for (int i = 0; i < sizzles.length; i++) {
-			max += sizzles[i].getLuminosity();
-		}
+		float max = sizzle.getLuminosity();
 		return invincibleTimer > 0 || manager.currentState().getRole()==PlayerState.STUNNED.ordinal() ? 0 : max;
 	}
 
@@ -317,8 +304,24 @@ public class Player extends Linkable {
 		luminosity = l;
 	}
 
-	public void addToLevel(Level<?> l) {
+	public int getProbeCount() {
+		return sizzle.getProbeCount();
+	}
+
+	public float getProbeX(int i) {
+		return sizzle.getProbeX(i);
+	}
+
+	public float getProbeY(int i) {
+		return sizzle.getProbeY(i);
+	}
+
+	public void setProbe(int i, float l) {
+		sizzle.setProbe(i, l);
+	}
 
+	public void addToLevel(Level<?> l) {
+		torus = ((CrashLevel) l).getTorus();
 	}
 
 	public float totalMileage() {
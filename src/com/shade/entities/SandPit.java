@@ -11,9 +11,12 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.crash.Body;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.crash.Immobile;
+import com.shade.crash.Shaped;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
 
-public class SandPit extends Body implements LuminousEntity {
+public class SandPit extends Body implements LuminousEntity, Immobile, Shaped {
 
     private float luminosity;
     private Image sprite;
@@ -28,12 +31,12 @@ public class SandPit extends Body implements LuminousEntity {
 
     private void initSquare(int x, int y, int w, int h) throws SlickException {
         shape = new Rectangle(x, y, w, h);
-        sprite = new Image("entities/sandpit/square.png");
+        sprite = ResourceManager.image("entities/sandpit/square.png");
     }
 
     private void initCircle(int x, int y, int r) throws SlickException {
         shape = new Circle(x, y, r);
-        sprite = new Image("entities/sandpit/circle.png");
+        sprite = ResourceManager.image("entities/sandpit/circle.png");
     }
 
     public Shape castShadow(float direction, float depth) {
@@ -81,4 +84,7 @@ public class SandPit extends Body implements LuminousEntity {
         return getZIndex() - o.getZIndex();
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
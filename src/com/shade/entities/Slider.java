@@ -1,6 +1,5 @@
 package com.shade.entities;
 
-import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Rectangle;
@@ -10,8 +9,10 @@ import org.newdawn.slick.geom.Vector2f;
 import org.newdawn.slick.state.StateBasedGame;
 
 import com.crash.Body;
+import com.shade.crash.Narrowphase;
 import com.shade.states.MasterState;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
 
 public class Slider extends Obstacle {
 
@@ -39,13 +40,13 @@ public class Slider extends Obstacle {
 
     private void initSprite(int r) throws SlickException {
         if (r == 0 || r == 2) {
-            sprite = new Image("entities/slider/slider.vertical.png");
+            sprite = ResourceManager.image("entities/slider/slider.vertical.png");
         } else {
-            sprite = new Image("entities/slider/slider.horizontal.png");
+            sprite = ResourceManager.image("entities/slider/slider.horizontal.png");
         }
     }
 
-    public Shape castShadow(float direction, float depth) {
+    protected Shape shadowFor(float direction, float depth) {
         Vector2f v = Geom.calculateVector(zindex * depth, direction);
 
         Transform t = Transform.createTranslateTransform(v.x, v.y);
@@ -104,22 +105,15 @@ public class Slider extends Obstacle {
     }
 
     public void repel(Body b) {
+        // push back along whichever axis the two overlap least on
+        if (!Narrowphase.boxes(b, this, contact)) {
+            return;
+        }
         float velx = b.getXVelocity();
         float vely = b.getYVelocity();
         float playerx = b.getXCenter();
         float playery = b.getYCenter();
-        // determine overlap
-        float right = playerx - b.getWidth() / 2
-                - (getXCenter() + getWidth() / 2);
-        float left = playerx + b.getWidth() / 2
-                - (getXCenter() - getWidth() / 2);
-        float top = playery - b.getHeight() / 2
-                - (getYCenter() + getHeight() / 2);
-        float bottom = playery + b.getHeight() / 2
-                - (getYCenter() - getHeight() / 2);
-        float minx = Math.min(Math.abs(right), Math.abs(left));
-        float miny = Math.min(Math.abs(top), Math.abs(bottom));
-        if (minx < miny) {
+        if (contact.alongX()) {
             // if we move, move AWAY from the block.
             if (Math.abs(playerx - getXCenter() - velx) < Math.abs(playerx
                     - getXCenter()))
@@ -4,7 +4,6 @@ import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.Input;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.geom.Polygon;
 import org.newdawn.slick.geom.Rectangle;
 import org.newdawn.slick.geom.Shape;
@@ -16,17 +15,20 @@ import com.crash.Body;
 import com.shade.base.Entity;
 import com.shade.base.Level;
 import com.shade.crash.Repelable;
+import com.shade.crash.Shaped;
 import com.shade.levels.Model;
 import com.shade.lighting.LuminousEntity;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
+import com.shade.util.SoundEffect;
 
-public class TransparentDoor extends Body implements LuminousEntity, Repelable {
+public class TransparentDoor extends Body implements LuminousEntity, Repelable, Shaped {
 
     private enum ActiveSide {
         TOP, RIGHT, BOTTOM, LEFT
     };
 
-    private static Sound open;
+    private static SoundEffect open;
 
     private ActiveSide softspot;
     private int zindex;
@@ -40,7 +42,7 @@ public class TransparentDoor extends Body implements LuminousEntity, Repelable {
 
     static {
         try {
-            open = new Sound("entities/door/open.ogg");
+            open = ResourceManager.sound("entities/door/open.ogg");
         } catch (SlickException e) {
             e.printStackTrace();
         }
@@ -62,12 +64,12 @@ public class TransparentDoor extends Body implements LuminousEntity, Repelable {
 
     private void initResources(int r) throws SlickException {
         if (r == 0 || r == 2) {
-            door = new Image("entities/door/door-horizontal-translucent.png");
+            door = ResourceManager.image("entities/door/door-horizontal-translucent.png");
         }
         if (r == 1 || r == 3) {
-            door = new Image("entities/door/door-vertical-translucent.png");
+            door = ResourceManager.image("entities/door/door-vertical-translucent.png");
         }
-        arrow = new Image("entities/door/arrow.png");
+        arrow = ResourceManager.image("entities/door/arrow.png").copy();
         if (r == 0) {
             arrow.rotate(180);
         }
@@ -314,4 +316,7 @@ public class TransparentDoor extends Body implements LuminousEntity, Repelable {
         return minx < miny;
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
@@ -16,6 +16,7 @@ import com.shade.base.Level;
 import com.shade.crash.Repelable;
 import com.shade.lighting.LuminousEntity;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
 
 public class TransparentFence extends Fence {
 
@@ -38,7 +39,7 @@ public class TransparentFence extends Fence {
         if (w > h) {
             path = "entities/fence/fence.transparent.horizontal.png";
         }
-        sprite = new Image(path);
+        sprite = ResourceManager.image(path);
     }
 
     public Shape castShadow(float direction, float depth) {
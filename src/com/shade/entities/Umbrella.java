@@ -12,14 +12,19 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.crash.Body;
 import com.shade.base.Entity;
 import com.shade.base.Level;
+import com.shade.crash.Immobile;
+import com.shade.crash.Shaped;
 import com.shade.lighting.LuminousEntity;
+import com.shade.lighting.ShadowCache;
+import com.shade.util.ResourceManager;
 
-public class Umbrella extends Body implements LuminousEntity {
+public class Umbrella extends Body implements LuminousEntity, Immobile, Shaped {
 
     private static final int RADIUS = 28;
     private static final int DEPTH = 5;
     private Image sprite;
     private int height;
+    private ShadowCache shadows = new ShadowCache();
 
     public Umbrella(int x, int y) throws SlickException {
         initShape(x, y, RADIUS);
@@ -28,7 +33,7 @@ public class Umbrella extends Body implements LuminousEntity {
     }
 
     private void initSprite() throws SlickException {
-        sprite = new Image("entities/umbrella/umbrella.png");
+        sprite = ResourceManager.image("entities/umbrella/umbrella.png");
     }
 
     private void initShape(int x, int y, int r) {
@@ -48,6 +53,13 @@ public class Umbrella extends Body implements LuminousEntity {
 
     }
 
+    public Shape castShadow(float direction, float depth) {
+        if (shadows.stale(direction, depth, shape)) {
+            shadows.set(shadowFor(shadows.angle(), depth));
+        }
+        return shadows.get();
+    }
+
     /**
      * Return a round rectangle as the shadow.
      * 
@@ -55,14 +67,13 @@ public class Umbrella extends Body implements LuminousEntity {
      * obviously will impact the odds of a mushroom being placed in said shadow.
      * But it's performant so I'm willing to accept that.
      */
-    public Shape castShadow(float direction, float depth) {
+    private Shape shadowFor(float direction, float depth) {
         float r = ((Circle) shape).radius;
         float h = height * depth * 1.6f;
         float x = getXCenter();
         float y = getYCenter();
         Transform t = Transform.createRotateTransform(direction + 3.14f, x, y);
 
-        // TODO cache the rectangle and just rotate it
         RoundedRectangle rr = new RoundedRectangle(getX(), getY(), r * 2, h, r);
         return rr.transform(t);
     }
@@ -95,4 +106,7 @@ public class Umbrella extends Body implements LuminousEntity {
         return getZIndex() - l.getZIndex();
     }
 
+    public Shape getShape() {
+        return shape;
+    }
 }
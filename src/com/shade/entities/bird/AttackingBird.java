@@ -10,6 +10,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -33,7 +34,7 @@ public class AttackingBird implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet idles = new SpriteSheet("entities/bird/attack.png", 40, 40);
+        SpriteSheet idles = ResourceManager.sheet("entities/bird/attack.png", 40, 40);
         idling = new Animation(idles, 600);
         idling.setAutoUpdate(false);
         idling.setPingPong(true);
@@ -2,7 +2,6 @@ package com.shade.entities.bird;
 
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.geom.Circle;
 import org.newdawn.slick.geom.Shape;
 import org.newdawn.slick.state.StateBasedGame;
@@ -14,12 +13,15 @@ import com.shade.base.util.StateManager;
 import com.shade.controls.DayPhaseTimer;
 import com.shade.crash.CrashLevel;
 import com.shade.crash.Repelable;
-import com.shade.entities.Basket;
+import com.shade.crash.Shaped;
 import com.shade.entities.Player;
 import com.shade.entities.Roles;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.levels.Model;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
+import com.shade.util.Rng;
+import com.shade.util.SoundEffect;
 
 /**
  * The real deal; this mole is the sum of different mole states.
@@ -32,7 +34,7 @@ import com.shade.lighting.LuminousEntity;
  * 
  * @author Jonathan Jou <j.j@duke.edu>
  */
-public final class Bird extends Body implements LuminousEntity {
+public final class Bird extends Body implements LuminousEntity, Shaped {
 
     protected enum States {
         WAITING, RETURNING, ATTACKING, SLEEPING, MIGRATING
@@ -44,16 +46,18 @@ public final class Bird extends Body implements LuminousEntity {
     protected float heading;
     protected float range;
     protected float speed;
+    /* Split off the level's stream once added, until then seeded from x, y. */
+    protected Rng random;
     protected boolean attacking;
 
     private float luminosity;
 
-    protected static Sound alert, attack;
+    protected static SoundEffect alert, attack;
 
     static {
         try {
-            alert = new Sound("entities/bird/alert.ogg");
-            attack = new Sound("entities/bird/attack.ogg");
+            alert = ResourceManager.sound("entities/bird/alert.ogg");
+            attack = ResourceManager.sound("entities/bird/attack.ogg");
         } catch (SlickException e) {
             e.printStackTrace();
         }
@@ -61,6 +65,7 @@ public final class Bird extends Body implements LuminousEntity {
 
     public Bird(int x, int y, int range, float speed) throws SlickException {
         heading = (float) (Math.PI);
+        random = Rng.at(x, y);
         this.range = range;
         this.speed = speed;
         initShape(x, y);
@@ -104,6 +109,7 @@ public final class Bird extends Body implements LuminousEntity {
 
     public void addToLevel(Level<?> l) {
         level = (CrashLevel) l;
+        random = ((Model) l).random(Model.Stream.BIRDS).split();
     }
 
     public int getRole() {
@@ -115,24 +121,21 @@ public final class Bird extends Body implements LuminousEntity {
     }
 
     public boolean canChase() {
-        return playerInSight() && playerInRange();
+        return playerInRange() && playerInSight();
     }
 
     public boolean playerInSight() {
-        Object[] o = level.getEntitiesByRole(Roles.PLAYER.ordinal());
-        if (o.length > 0) {
-            Player p = (Player) o[0];
-            return level.lineOfSight(this, p, this, (Basket) level
-                    .getEntitiesByRole(Roles.BASKET.ordinal())[0])
+        Player p = level.getPlayer();
+        if (p != null) {
+            return level.lineOfSight(this, p, this, level.getBasket())
                     && p.getLuminosity() > 0.6;
         }
         return false;
     }
 
     public boolean playerInRange() {
-        Object[] o = level.getEntitiesByRole(Roles.PLAYER.ordinal());
-        if (o.length > 0) {
-            Player p = (Player) o[0];
+        Player p = level.getPlayer();
+        if (p != null) {
             float distx = p.getXCenter() - getXCenter();
             float disty = p.getYCenter() - getYCenter();
             return Math.sqrt(distx * distx + disty * disty) < range;
@@ -171,18 +174,8 @@ public final class Bird extends Body implements LuminousEntity {
      * it is.
      */
     protected void testAndWrap() {
-        if (getXCenter() <= 5) {
-            shape.setCenterX(795);
-        }
-        if (getXCenter() > 795) {
-            shape.setCenterX(5);
-        }
-        if (getYCenter() <= 5) {
-            shape.setCenterY(595);
-        }
-        if (getYCenter() > 595) {
-            shape.setCenterY(5);
-        }
+        shape.setCenterX(level.getTorus().wrapX(getXCenter()));
+        shape.setCenterY(level.getTorus().wrapY(getYCenter()));
     }
 
     public Shape castShadow(float direction, float depth) {
@@ -201,4 +194,8 @@ public final class Bird extends Body implements LuminousEntity {
         level.remove(this);
 
     }
+
+    public Shape getShape() {
+        return shape;
+    }
 }
@@ -1,5 +1,7 @@
 package com.shade.entities.bird;
 
+import java.util.List;
+
 import org.newdawn.slick.Animation;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
@@ -11,6 +13,8 @@ import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.crash.CrashLevel;
 import com.shade.entities.Roles;
+import com.shade.lighting.LuminousEntity;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -34,7 +38,7 @@ public class ReturningBird implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet idles = new SpriteSheet("entities/bird/fly.png", 40, 40);
+        SpriteSheet idles = ResourceManager.sheet("entities/bird/fly.png", 40, 40);
         idling = new Animation(idles, 75);
         idling.setAutoUpdate(false);
         //idling.setPingPong(true);
@@ -44,9 +48,9 @@ public class ReturningBird implements State {
         timer = 0;
         idling.restart();
         if(bird.level!=null){
-        	Object[] spots = bird.level.getEntitiesByRole(Roles.OBSTACLE.ordinal());
-        	int pick = (int)(Math.random()*spots.length);
-        nest = (Body)spots[pick];
+        	List<LuminousEntity> spots = bird.level.getEntitiesByRole(Roles.OBSTACLE);
+        	int pick = bird.random.nextInt(spots.size());
+        nest = (Body)spots.get(pick);
         }
     }
 
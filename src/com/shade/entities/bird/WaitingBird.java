@@ -12,6 +12,7 @@ import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Player;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -34,7 +35,7 @@ public class WaitingBird implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet idles = new SpriteSheet("entities/bird/fly.png", 40, 40);
+        SpriteSheet idles = ResourceManager.sheet("entities/bird/fly.png", 40, 40);
         idling = new Animation(idles, 125);
         idling.setAutoUpdate(false);
         // idling.setPingPong(true);
@@ -76,10 +77,8 @@ public class WaitingBird implements State {
     private void checkPlayer() {
         float x = bird.getXCenter();
         float y = bird.getYCenter();
-        Object[] o = bird.level.getEntitiesByRole(Roles.PLAYER.ordinal());
-        if (o.length > 0) {
-            Player p = (Player) bird.level.getEntitiesByRole(Roles.PLAYER
-                    .ordinal())[0];
+        Player p = bird.level.getPlayer();
+        if (p != null) {
             float destx = p.getXCenter();
             float desty = p.getYCenter();
             float distx = destx - x;
@@ -110,7 +109,7 @@ public class WaitingBird implements State {
     private void testTimer(int delta) {
         timer += delta;
         if (timer > 2000) {
-            if (Math.random() > 0.2)
+            if (bird.random.nextDouble() > 0.2)
                 bird.manager.enter(Bird.States.WAITING);
             else {
                 bird.manager.enter(Bird.States.RETURNING);
@@ -10,6 +10,7 @@ import com.shade.base.Entity;
 import com.shade.base.Level;
 import com.shade.base.util.StateManager;
 import com.shade.crash.CrashLevel;
+import com.shade.crash.Neighbors;
 import com.shade.entities.Linkable;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.entities.util.MoleFactory;
@@ -32,6 +33,10 @@ public final class Mole extends Linkable {
     protected StateManager manager;
     protected Mushroom target;
     protected float heading;
+    /*
+     * Every mushroom near enough to go after, refilled when looking for one.
+     */
+    protected Neighbors nearby;
 
     private MoleFactory factory;
     private float luminosity;
@@ -39,6 +44,7 @@ public final class Mole extends Linkable {
     public Mole(float x, float y, MoleFactory factory) throws SlickException {
         this.factory = factory;
         heading = (float) (Math.PI);
+        nearby = new Neighbors();
         initShape(x, y);
         initStates();
     }
@@ -98,7 +104,7 @@ public final class Mole extends Linkable {
 
     public void update(StateBasedGame game, int delta) {
         manager.update(game, delta);
-        testAndWrap();
+        testAndWrap(level.getTorus());
     }
 
     public Shape castShadow(float direction, float depth) {
@@ -1,6 +1,5 @@
 package com.shade.entities.mole;
 
-import com.shade.base.Entity;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.entities.Roles;
 import com.shade.lighting.LuminousEntity;
@@ -14,27 +13,24 @@ public class Util {
 
     /** Return first mushroom you can see which isn't already attached. */
     public static boolean foundTarget(Mole mole) {
-        LuminousEntity[] entities = mole.level.nearbyEntities(mole, 200);
+        mole.level.within(mole, 200, Roles.MUSHROOM, mole.nearby);
 
-        int i = findValidTarget(entities, mole);
+        int i = findValidTarget(mole);
 
-        if (i > 0) {
-            mole.target = (Mushroom) entities[i];
+        if (i >= 0) {
+            mole.target = (Mushroom) mole.nearby.get(i);
             return true;
         }
         return false;
     }
 
-    private static int findValidTarget(LuminousEntity[] entities, Mole mole) {
-        boolean lineOfSight = false;
-        int i = 0;
-        while (!lineOfSight && i < entities.length) {
-            if (((Entity) entities[i]).getRole() == Roles.MUSHROOM.ordinal()) {
-                lineOfSight = mole.level.lineOfSight(mole, entities[i], mole);
+    private static int findValidTarget(Mole mole) {
+        for (int i = 0; i < mole.nearby.size(); i++) {
+            LuminousEntity e = mole.nearby.get(i);
+            if (mole.level.lineOfSight(mole, e, mole)) {
+                return i;
             }
-            i++;
         }
-        i--;
-        return (lineOfSight) ? i : -1;
+        return -1;
     }
 }
@@ -9,10 +9,10 @@ import org.newdawn.slick.state.StateBasedGame;
 
 import com.shade.base.Entity;
 import com.shade.base.util.State;
-import com.shade.crash.CrashGeom;
 import com.shade.entities.Roles;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.util.Geom;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has zero or more mushrooms in toe but hasn't yet returned
@@ -37,7 +37,7 @@ public class WorkerMole implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet works = new SpriteSheet("entities/mole/move.png", 40, 40);
+        SpriteSheet works = ResourceManager.sheet("entities/mole/move.png", 40, 40);
         working = new Animation(works, 300);
         working.setAutoUpdate(false);
     }
@@ -111,32 +111,7 @@ public class WorkerMole implements State {
     }
 
     private void seekTarget() {
-        float[] d = new float[3];
-        d[0] = CrashGeom.distance2(mole.target, mole);
-        d[1] = d[0];
-        d[2] = d[0];
-        // if I'm left of my target
-        if (mole.getX() < mole.target.getX()) {
-            d[1] = CrashGeom.distance2(mole.target, mole.getXCenter() + 800,
-                    mole.getYCenter());
-        } else {
-            d[1] = CrashGeom.distance2(mole, mole.target.getXCenter() + 800,
-                    mole.target.getYCenter());
-        }
-
-        // if I'm above my target
-        if (mole.getY() < mole.target.getY()) {
-            d[2] = CrashGeom.distance2(mole.target, mole.getXCenter(), mole
-                    .getYCenter() + 600);
-        } else {
-            d[2] = CrashGeom.distance2(mole, mole.target.getXCenter(),
-                    mole.target.getYCenter() + 600);
-        }
-
-        mole.heading = CrashGeom.calculateAngle(mole.target, mole);
-        if (d[1] < d[0] || d[2] < d[0]) {
-            mole.heading += Math.PI;
-        }
+        mole.heading = mole.level.getTorus().calculateAngle(mole.target, mole);
 
         Vector2f v = Geom.calculateVector(.9f, mole.heading);
         mole.nudge(v.x, v.y);
@@ -10,6 +10,7 @@ import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Player;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -32,7 +33,7 @@ public class ChasingMonster implements State {
 	}
 
 	private void initResources() throws SlickException {
-		SpriteSheet idles = new SpriteSheet("entities/mole/sniff.png", 40, 40);
+		SpriteSheet idles = ResourceManager.sheet("entities/mole/sniff.png", 40, 40);
 		idling = new Animation(idles, 300);
 		idling.setAutoUpdate(false);
 		idling.setPingPong(true);
@@ -64,8 +65,7 @@ public class ChasingMonster implements State {
 
 	private void chase() {
 		if (monster.playerInSight()) {
-			Player p = (Player) monster.level.getEntitiesByRole(Roles.PLAYER
-					.ordinal())[0];
+			Player p = monster.level.getPlayer();
 			float distx = p.getXCenter() - monster.getXCenter();
 			float disty = p.getYCenter() - monster.getYCenter();
 			monster.heading = (float) (Math.atan2(disty, distx) + Math.PI / 2);
@@ -13,12 +13,13 @@ import com.shade.base.util.StateManager;
 import com.shade.controls.DayPhaseTimer;
 import com.shade.crash.CrashLevel;
 import com.shade.crash.Repelable;
-import com.shade.entities.Basket;
+import com.shade.crash.Shaped;
 import com.shade.entities.Player;
 import com.shade.entities.Roles;
 import com.shade.entities.mushroom.Mushroom;
 import com.shade.levels.Model;
 import com.shade.lighting.LuminousEntity;
+import com.shade.util.Rng;
 
 /**
  * The real deal; this mole is the sum of different mole states.
@@ -27,7 +28,7 @@ import com.shade.lighting.LuminousEntity;
  *
  * @author Jonathan Jou <j.j@duke.edu>
  */
-public final class Monster extends Body implements LuminousEntity{
+public final class Monster extends Body implements LuminousEntity, Shaped{
 
     protected enum States {
         PROWLING, SLEEPING, LOST, CHASING, WANDERING, SNIFFING
@@ -39,11 +40,14 @@ public final class Monster extends Body implements LuminousEntity{
     protected float heading;
     protected float range;
     protected float speed;
+    /* Split off the level's stream once added, until then seeded from x, y. */
+    protected Rng random;
     
     private float luminosity;
 
     public Monster(int x, int y, int range, float speed) throws SlickException {
         heading = (float) (Math.PI);
+        random = Rng.at(x, y);
         this.range = range;
         this.speed = speed;
         initShape(x, y);
@@ -84,6 +88,7 @@ public final class Monster extends Body implements LuminousEntity{
 
     public void addToLevel(Level < ? > l) {
         level = (CrashLevel) l;
+        random = ((Model) l).random(Model.Stream.MONSTERS).split();
     }
 
 
@@ -100,16 +105,16 @@ public final class Monster extends Body implements LuminousEntity{
     }
     
     public boolean canChase(){
-    	return playerInSight() && playerInRange();
+    	return playerInRange() && playerInSight();
     }
     
     public boolean playerInSight(){
-    	Player p = (Player)level.getEntitiesByRole(Roles.PLAYER.ordinal())[0];
-    	return level.lineOfSight(this,p, this,(Basket)level.getEntitiesByRole(Roles.BASKET.ordinal())[0]) && p.getLuminosity()>0.6;
+    	Player p = level.getPlayer();
+    	return level.lineOfSight(this,p, this,level.getBasket()) && p.getLuminosity()>0.6;
     }
     
     public boolean playerInRange(){
-    	Player p = (Player)level.getEntitiesByRole(Roles.PLAYER.ordinal())[0];
+    	Player p = level.getPlayer();
     	float distx = p.getXCenter()-getXCenter();
     	float disty = p.getYCenter()-getYCenter();
     	return Math.sqrt(distx*distx+disty*disty)<range;
@@ -147,18 +152,8 @@ public final class Monster extends Body implements LuminousEntity{
      * it is.
      */
     protected void testAndWrap() {
-        if (getXCenter() <= 5) {
-            shape.setCenterX(795);
-        }
-        if (getXCenter() > 795) {
-            shape.setCenterX(5);
-        }
-        if (getYCenter() <= 5) {
-            shape.setCenterY(595);
-        }
-        if (getYCenter() > 595) {
-            shape.setCenterY(5);
-        }
+        shape.setCenterX(level.getTorus().wrapX(getXCenter()));
+        shape.setCenterY(level.getTorus().wrapY(getYCenter()));
     }
 
     public Shape castShadow(float direction, float depth) {
@@ -178,4 +173,8 @@ public final class Monster extends Body implements LuminousEntity{
 		level.remove(this);
 		
 	}
+
+    public Shape getShape() {
+        return shape;
+    }
 }
@@ -9,6 +9,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -31,7 +32,7 @@ public class ProwlingMonster implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet idles = new SpriteSheet("entities/mole/sniff.png", 40, 40);
+        SpriteSheet idles = ResourceManager.sheet("entities/mole/sniff.png", 40, 40);
         idling = new Animation(idles, 300);
         idling.setAutoUpdate(false);
         idling.setPingPong(true);
@@ -39,7 +40,7 @@ public class ProwlingMonster implements State {
 
     public void enter() {
         timer = 0;
-        monster.heading = (float)(Math.random()*Math.PI*2);
+        monster.heading = (float)(monster.random.nextDouble()*Math.PI*2);
         idling.restart();
     }
 
@@ -76,10 +77,10 @@ public class ProwlingMonster implements State {
     private void testTimer(int delta) {
         timer += delta;
         if (timer > 3000) {
-        	if(Math.random()>0.8)
+        	if(monster.random.nextDouble()>0.8)
             monster.manager.enter(Monster.States.SNIFFING);
         	else 
-        		timer -= Math.random()*2500;
+        		timer -= monster.random.nextDouble()*2500;
         }
     }
 
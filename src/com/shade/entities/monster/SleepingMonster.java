@@ -9,6 +9,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -32,8 +33,8 @@ public class SleepingMonster implements State {
     }
 
     private void initResources() throws SlickException {
-        SpriteSheet idles = new SpriteSheet("entities/mole/sleep.png", 40, 40);
-        SpriteSheet z = new SpriteSheet("entities/mole/z.png",40,40);
+        SpriteSheet idles = ResourceManager.sheet("entities/mole/sleep.png", 40, 40);
+        SpriteSheet z = ResourceManager.sheet("entities/mole/z.png",40,40);
         snores = new Animation(z,900);
         idling = new Animation(idles, 600);
         idling.setAutoUpdate(false);
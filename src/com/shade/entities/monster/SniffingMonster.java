@@ -9,6 +9,7 @@ import org.newdawn.slick.state.StateBasedGame;
 import com.shade.base.Entity;
 import com.shade.base.util.State;
 import com.shade.entities.Roles;
+import com.shade.util.ResourceManager;
 
 /**
  * A mole who has not yet found any mushrooms but is searching for them.
@@ -31,7 +32,7 @@ public class SniffingMonster implements State {
 	}
 
 	private void initResources() throws SlickException {
-		SpriteSheet idles = new SpriteSheet("entities/mole/sniff.png", 40, 40);
+		SpriteSheet idles = ResourceManager.sheet("entities/mole/sniff.png", 40, 40);
 		idling = new Animation(idles, 300);
 		idling.setAutoUpdate(false);
 		idling.setPingPong(true);
@@ -77,8 +78,8 @@ public class SniffingMonster implements State {
 	private void testTimer(int delta) {
 		timer += delta;
 		if (timer > 1500) {
-			if (Math.random() > 0.4) {
-				monster.heading += (float) ((Math.random() - 0.5) * 3/2 * Math.PI);
+			if (monster.random.nextDouble() > 0.4) {
+				monster.heading += (float) ((monster.random.nextDouble() - 0.5) * 3/2 * Math.PI);
 				monster.manager.enter(Monster.States.SNIFFING);
 			} else
 				monster.manager.enter(Monster.States.PROWLING);
@@ -8,6 +8,8 @@ import com.shade.base.util.State;
 import com.shade.crash.Repelable;
 import com.shade.entities.Player;
 import com.shade.entities.Roles;
+import com.shade.levels.Model;
+import com.shade.util.Rng;
 
 public class FlyingShroom implements State {
 	
@@ -24,14 +26,15 @@ public class FlyingShroom implements State {
 
     public void enter() {
     	shroom.detach();
-    	 Player p = (Player)shroom.level.getEntitiesByRole(Roles.PLAYER.ordinal())[0];
+    	 Player p = shroom.level.getPlayer();
     	 float x = shroom.getXCenter();
     	 float y = shroom.getYCenter();
          float destx = p.getXCenter();
          float desty = p.getYCenter();
          float distx = destx-x;
          float disty = desty-y;
-    	angle = Math.random()*Math.PI+Math.atan2(disty,distx);
+    	Rng random = ((Model) shroom.level).random(Model.Stream.MUSHROOMS);
+    	angle = random.nextDouble()*Math.PI+Math.atan2(disty,distx);
     	timer = 0;
     }
 
@@ -4,7 +4,6 @@ import org.newdawn.slick.Color;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.SpriteSheet;
 import org.newdawn.slick.geom.Circle;
 import org.newdawn.slick.geom.Shape;
@@ -18,6 +17,8 @@ import com.shade.entities.Linkable;
 import com.shade.entities.util.Sparkler;
 import com.shade.lighting.LuminousEntity;
 import com.shade.states.MasterState;
+import com.shade.util.ResourceManager;
+import com.shade.util.SoundEffect;
 
 public class Mushroom extends Linkable {
 
@@ -47,15 +48,15 @@ public class Mushroom extends Linkable {
     protected CrashLevel level;
 
     private static SpriteSheet sheet;
-    protected static Sound spawning, picked, poisonPicked, collected;
+    protected static SoundEffect spawning, picked, poisonPicked, collected;
 
     static {
         try {
-            sheet = new SpriteSheet("entities/mushroom/mushrooms.png", 40, 40);
-            spawning = new Sound("entities/mushroom/sprout.ogg");
-            picked = new Sound("entities/mushroom/picked.ogg");
-            poisonPicked = new Sound("entities/mushroom/poison-picked.ogg");
-            collected = new Sound("entities/mushroom/collected.ogg");
+            sheet = ResourceManager.sheet("entities/mushroom/mushrooms.png", 40, 40);
+            spawning = ResourceManager.sound("entities/mushroom/sprout.ogg");
+            picked = ResourceManager.sound("entities/mushroom/picked.ogg");
+            poisonPicked = ResourceManager.sound("entities/mushroom/poison-picked.ogg");
+            collected = ResourceManager.sound("entities/mushroom/collected.ogg");
         } catch (SlickException e) {
             e.printStackTrace();
         }
@@ -213,7 +214,7 @@ public class Mushroom extends Linkable {
 
     public void update(StateBasedGame game, int delta) {
         manager.update(game, delta);
-        testAndWrap();
+        testAndWrap(level.getTorus());
         if(isGolden()&&!manager.currentState().isNamed(States.SPAWNING))
         sparky.update(delta);
     }
@@ -10,6 +10,7 @@ import org.newdawn.slick.SlickException;
 import com.crash.Body;
 import com.shade.entities.Basket;
 import com.shade.util.Geom;
+import com.shade.util.Rng;
 
 public class MushroomFactory {
 
@@ -37,14 +38,17 @@ public class MushroomFactory {
 	 */
 	private Queue<Integer> upcomingType;
 
+	private Rng random;
+
 	/**
 	 * @param floor
 	 *            The baseline number of mushrooms on the field.
-	 * @param propensity
-	 *            The likelihood to add a mushroom over the baseline.
+	 * @param random
+	 *            Where to get spawns from, the level's MUSHROOMS stream.
 	 */
-	public MushroomFactory(int floor) {
+	public MushroomFactory(int floor, Rng random) {
 		this.floor = floor;
+		this.random = random;
 		this.propensity = PROPENSITY;
 		mushrooms = new LinkedList<Mushroom>();
 		upcomingType = new LinkedList<Integer>();
@@ -59,7 +63,7 @@ public class MushroomFactory {
 		if (mushrooms.size() < floor) {
 			return true;
 		}
-		return (Math.random() <= propensity);
+		return (random.nextDouble() <= propensity);
 	}
 
 	public Mushroom getMushroom(GameContainer c, Shape shadow, Body b)
@@ -97,7 +101,7 @@ public class MushroomFactory {
 		float x = -1;
 		int numTries = 0;
 		while ((x < 0 || x >= c.getWidth()) && numTries < 6) {
-			x = (float) (s.getMaxX() - s.getMinX() * Math.random() * 0.66);
+			x = (float) (s.getMaxX() - s.getMinX() * random.nextDouble() * 0.66);
 			x += s.getX();
 			numTries++;
 			if (numTries > 6) {
@@ -112,7 +116,7 @@ public class MushroomFactory {
 		float y = -1;
 		int numTries = 0;
 		while ((y < 0 || y >= c.getHeight()) && numTries < 6) {
-			y = (float) (s.getMaxY() - s.getMinY() * Math.random() * 0.66);
+			y = (float) (s.getMaxY() - s.getMinY() * random.nextDouble() * 0.66);
 			y += s.getY();
 			numTries++;
 			if (numTries > 6) {
@@ -142,7 +146,7 @@ public class MushroomFactory {
 		if(upcomingType.size()<1){
 			//generate list
 			int[] types = new int[GOLD_RATIO_INVERSE];
-			int goldIndex = (int)(Math.random()*GOLD_RATIO_INVERSE);
+			int goldIndex = random.nextInt(GOLD_RATIO_INVERSE);
 			for(int i =0;i<GOLD_RATIO_INVERSE;i++){
 				types[i] = 1;
 				if(i==goldIndex)types[i]=3;
@@ -157,7 +161,7 @@ public class MushroomFactory {
 	}
 
 	private int randomType() {
-		double r = Math.random();
+		double r = random.nextDouble();
 
 		double max = 0;
 		for (int i = 0; i < distribution.length; i++) {
@@ -5,7 +5,6 @@ import org.lwjgl.opengl.GL11;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.Graphics;
 import org.newdawn.slick.SlickException;
-import org.newdawn.slick.Sound;
 import org.newdawn.slick.SpriteSheet;
 import org.newdawn.slick.geom.Circle;
 import org.newdawn.slick.geom.Rectangle;
@@ -22,6 +21,8 @@ import com.shade.entities.mushroom.Mushroom;
 import com.shade.entities.util.Sparkler;
 import com.shade.lighting.LuminousEntity;
 import com.shade.states.MasterState;
+import com.shade.util.ResourceManager;
+import com.shade.util.SoundEffect;
 
 public class Treasure extends Mushroom implements Repelable {
 
@@ -58,18 +59,18 @@ public class Treasure extends Mushroom implements Repelable {
 
 	private static SpriteSheet chestOpen;
 	private static SpriteSheet chestClosed;
-	protected static Sound spawning, picked, poisonPicked, collected;
+	protected static SoundEffect spawning, picked, poisonPicked, collected;
 
 	static {
 		try {
-			chestOpen = new SpriteSheet("entities/treasure/TreasureOpened.png",
+			chestOpen = ResourceManager.sheet("entities/treasure/TreasureOpened.png",
 					64, 51);
-			chestClosed = new SpriteSheet(
+			chestClosed = ResourceManager.sheet(
 					"entities/treasure/TreasureClosed.png", 39, 50);
-			spawning = new Sound("entities/mushroom/sprout.ogg");
-			picked = new Sound("entities/mushroom/picked.ogg");
-			poisonPicked = new Sound("entities/mushroom/poison-picked.ogg");
-			collected = new Sound("entities/mushroom/collected.ogg");
+			spawning = ResourceManager.sound("entities/mushroom/sprout.ogg");
+			picked = ResourceManager.sound("entities/mushroom/picked.ogg");
+			poisonPicked = ResourceManager.sound("entities/mushroom/poison-picked.ogg");
+			collected = ResourceManager.sound("entities/mushroom/collected.ogg");
 		} catch (SlickException e) {
 			e.printStackTrace();
 		}
@@ -296,7 +297,7 @@ public class Treasure extends Mushroom implements Repelable {
 	public void update(StateBasedGame game, int delta) {
 		manager.update(game, delta);
 		sparky.update(delta);
-		testAndWrap();
+		testAndWrap(level.getTorus());
 	}
 
 	public int compareTo(LuminousEntity l) {
@@ -7,14 +7,21 @@ import org.newdawn.slick.SlickException;
 import org.newdawn.slick.geom.Shape;
 
 import com.shade.entities.mole.Mole;
+import com.shade.util.Rng;
 
 public class MoleFactory {
 
     private int limit;
     private LinkedList<Mole> moles;
+    private Rng random;
 
-    public MoleFactory(int limit) {
+    /**
+     * @param random
+     *            Where to get spawn points from, the level's MOLES stream.
+     */
+    public MoleFactory(int limit, Rng random) {
         this.limit = limit;
+        this.random = random;
         moles = new LinkedList<Mole>();
     }
 
@@ -38,7 +45,7 @@ public class MoleFactory {
         float x = -1;
         int numTries = 0;
         while (x < 0 || x >= c.getWidth()) {
-            x = (float) (s.getMaxX() - s.getX() * Math.random());
+            x = (float) (s.getMaxX() - s.getX() * random.nextDouble());
             x += s.getX();
             numTries++;
             if (numTries > 6) {
@@ -52,7 +59,7 @@ public class MoleFactory {
         float y = -1;
         int numTries = 0;
         while (y < 0 || y >= c.getHeight()) {
-            y = (float) (s.getMaxY() - s.getY() * Math.random());
+            y = (float) (s.getMaxY() - s.getY() * random.nextDouble());
             y += s.getY();
             numTries++;
             if (numTries > 6) {
@@ -0,0 +1,68 @@
+package com.shade.entities.util;
+
+/**
+ * Fixed size storage for particles.
+ *
+ * Particles are kept as parallel arrays of primitives rather than objects so
+ * that spawning, updating and killing them never touches the heap. Live
+ * particles are packed at the front of the arrays; killing one moves the last
+ * live particle into its slot, so walk the pool backwards if you intend to
+ * kill particles while iterating.
+ */
+class ParticlePool {
+
+    final float[] x, y, scale;
+    final int[] age, delay, vent;
+    private int size;
+
+    public ParticlePool(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        scale = new float[capacity];
+        age = new int[capacity];
+        delay = new int[capacity];
+        vent = new int[capacity];
+    }
+
+    /**
+     * Add a particle and return its index, or -1 if the pool is full.
+     */
+    public int spawn(float px, float py, int wait, int source) {
+        if (size == x.length) {
+            return -1;
+        }
+        int i = size++;
+        x[i] = px;
+        y[i] = py;
+        scale[i] = 0;
+        age[i] = 0;
+        delay[i] = wait;
+        vent[i] = source;
+        return i;
+    }
+
+    public void kill(int i) {
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            scale[i] = scale[last];
+            age[i] = age[last];
+            delay[i] = delay[last];
+            vent[i] = vent[last];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+}
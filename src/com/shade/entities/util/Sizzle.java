@@ -0,0 +1,175 @@
+package com.shade.entities.util;
+
+import org.lwjgl.opengl.GL11;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.state.StateBasedGame;
+
+import com.crash.Body;
+import com.shade.lighting.LightProbes;
+import com.shade.states.MasterState;
+import com.shade.util.ResourceManager;
+
+/**
+ * Puffs of smoke which rise off a body while it sits in the sun.
+ *
+ * The puffs come out of a number of vents spaced evenly around the body. The
+ * longer a vent has been in the sun the more puffs it emits, and the amount
+ * of sunlight each vent sees doubles as a measure of how exposed the body is.
+ * Each vent is a probe; the light mask or the shadow map hands in how much
+ * light falls on it.
+ *
+ * All of the puffs share one pool and are drawn in a single batch.
+ */
+public class Sizzle implements LightProbes {
+
+    public static final float MAX_SCALEUP = 0.5f;
+    public static final int MAX_SPARKLES = 50;
+    public static final float increment = 0.002f;
+
+    private static final int INITIAL_SPARKLES = 10;
+
+    private Body origin;
+    private Image image;
+    private ParticlePool pool;
+    // offsets of each vent from the body's center
+    private int[] ventX, ventY;
+    private int[] count, live, timeInSun;
+    private float[] intensity;
+
+    public Sizzle(Body b, int vents, String source) throws SlickException {
+        origin = b;
+        image = ResourceManager.image(source);
+        pool = new ParticlePool(vents * MAX_SPARKLES);
+        ventX = new int[vents];
+        ventY = new int[vents];
+        count = new int[vents];
+        live = new int[vents];
+        timeInSun = new int[vents];
+        intensity = new float[vents];
+        for (int v = 0; v < vents; v++) {
+            ventX[v] = (int) (Math.cos(Math.PI * 2 * v / vents) * b.getWidth() * 2 / 5);
+            ventY[v] = (int) (Math.sin(Math.PI * 2 * v / vents) * b.getHeight() * 2 / 5);
+            count[v] = INITIAL_SPARKLES;
+            for (int i = 0; i < INITIAL_SPARKLES; i++) {
+                int delay = (int) (MAX_SCALEUP / increment * i / INITIAL_SPARKLES);
+                emit(v, delay);
+            }
+        }
+    }
+
+    /**
+     * Sum of the light falling on each vent as last sampled.
+     */
+    public float getLuminosity() {
+        float sum = 0;
+        for (int v = 0; v < intensity.length; v++) {
+            sum += intensity[v];
+        }
+        return sum;
+    }
+
+    public int getProbeCount() {
+        return intensity.length;
+    }
+
+    /* Probes sit just inside their vents. */
+    public float getProbeX(int v) {
+        return (int) ventXAt(v) - ventX[v] / 5;
+    }
+
+    public float getProbeY(int v) {
+        return (int) ventYAt(v) + 1 - ventY[v] / 5;
+    }
+
+    public void setProbe(int v, float l) {
+        intensity[v] = l;
+    }
+
+    public void update(int delta) {
+        for (int i = pool.size() - 1; i >= 0; i--) {
+            pool.age[i] += delta;
+            if (pool.scale[i] < MAX_SCALEUP && pool.age[i] >= pool.delay[i]) {
+                pool.scale[i] += delta * increment;
+            } else if (pool.scale[i] >= MAX_SCALEUP) {
+                renew(i);
+            }
+        }
+        for (int v = 0; v < count.length; v++) {
+            if (intensity[v] > MasterState.SHADOW_THRESHOLD) {
+                timeInSun[v] += delta;
+            } else {
+                timeInSun[v] = 0;
+            }
+            count[v] = Math.min(timeInSun[v] / 200, MAX_SPARKLES);
+            while (live[v] < count[v] && emit(v, 0)) {
+                // keep topping up
+            }
+        }
+    }
+
+    public void render(StateBasedGame game) {
+        GL11.glAlphaFunc(GL11.GL_GREATER, 0.01f);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        float w = image.getWidth();
+        float h = image.getHeight();
+        image.startUse();
+        for (int i = 0; i < pool.size(); i++) {
+            if (pool.age[i] <= pool.delay[i]) {
+                continue;
+            }
+            float s = pool.scale[i];
+            GL11.glColor4f(1f, 1f, 1f, (0.5f - s) / 0.75f + 0.25f);
+            image.drawEmbedded(pool.x[i] - w / 2 * s, pool.y[i] - h / 2 * s,
+                    w * s, h * s);
+        }
+        image.endUse();
+        Color.white.bind();
+        GL11.glAlphaFunc(GL11.GL_GREATER, 0.95f);
+        GL11.glBlendFunc(GL11.GL_DST_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    /**
+     * Stop every vent and clear away the puffs.
+     */
+    public void reset() {
+        pool.clear();
+        for (int v = 0; v < count.length; v++) {
+            timeInSun[v] = 0;
+            live[v] = 0;
+        }
+    }
+
+    private boolean emit(int v, int delay) {
+        int i = pool.spawn(ventXAt(v), ventYAt(v), delay, v);
+        if (i < 0) {
+            return false;
+        }
+        live[v]++;
+        return true;
+    }
+
+    /* Start the puff over at its vent, or retire it if the vent has cooled. */
+    private void renew(int i) {
+        int v = pool.vent[i];
+        if (live[v] > count[v]) {
+            live[v]--;
+            pool.kill(i);
+            return;
+        }
+        pool.age[i] = 0;
+        pool.scale[i] = 0.1f;
+        pool.x[i] = ventXAt(v);
+        pool.y[i] = ventYAt(v);
+    }
+
+    private float ventXAt(int v) {
+        return origin.getXCenter() - 1.5f + ventX[v];
+    }
+
+    private float ventYAt(int v) {
+        return origin.getYCenter() + ventY[v];
+    }
+
+}
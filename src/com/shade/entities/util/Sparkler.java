@@ -1,106 +1,85 @@
 package com.shade.entities.util;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.lwjgl.opengl.GL11;
 import org.newdawn.slick.Graphics;
-import org.newdawn.slick.SpriteSheet;
+import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 
 import com.crash.Body;
+import com.shade.util.ResourceManager;
+import com.shade.util.Rng;
 
 public class Sparkler {
-	private int sparkleCount;
 	public static final float MAX_SCALEUP = 0.5f;
 	public static final float increment = 0.001f;
 
-	private Sparkle[] sparkles;
+	private ParticlePool sparkles;
 	// the lovely source of sparkliness
 	private Body origin;
 	// the sparkle itself
-	private SpriteSheet sparkle;
+	private Image sparkle;
 	private int timer;
-	
+	private Rng random;
+
 	public Sparkler(Body b, int count) throws SlickException {
 		timer = 0;
 		origin = b;
-		sparkleCount = count;
-		initSparkles();
-		for (int i = 0; i < sparkles.length; i++) {
-			float[] p = getPoint();
-			sparkles[i] = new Sparkle(p[0],p[1], this);
+		// cosmetic, so kept apart from the level's streams
+		random = Rng.at(b.getXCenter(), b.getYCenter());
+		sparkles = new ParticlePool(count);
+		for (int i = 0; i < count; i++) {
+			// stagger the sparkles so they don't all pop at once
+			int delay = (int) (MAX_SCALEUP / increment * i / count);
+			sparkles.spawn(pointX(), pointY(), delay, 0);
 		}
-        sparkle = new SpriteSheet("entities/sparkle/spark.png", 50, 50);
-	}
-
-	private void initSparkles() {
-		sparkles = new Sparkle[sparkleCount];
+		sparkle = ResourceManager.image("entities/sparkle/spark.png");
 	}
 
 	public void update(int delta) {
-		timer+=delta;
-		for(int i = 0;i<sparkles.length;i++){
-			if(timer>MAX_SCALEUP/increment*i/sparkles.length)
-			sparkles[i].update(delta);
+		timer += delta;
+		for (int i = 0; i < sparkles.size(); i++) {
+			if (timer <= sparkles.delay[i]) {
+				continue;
+			}
+			if (sparkles.scale[i] < MAX_SCALEUP) {
+				sparkles.scale[i] += delta * increment;
+			} else {
+				// start over somewhere else
+				sparkles.scale[i] = 0.1f;
+				sparkles.x[i] = pointX();
+				sparkles.y[i] = pointY();
+			}
 		}
 	}
-	
+
 	public void animate(Graphics g) {
-		//TODO: YAY OPENGL CALLS
 		GL11.glAlphaFunc(GL11.GL_GREATER, 0.01f);
 		GL11.glBlendFunc(GL11.GL_SRC_ALPHA,GL11.GL_ONE_MINUS_SRC_ALPHA);
-		for(int i = 0;i<sparkles.length;i++){
-			if(timer>MAX_SCALEUP/increment*i/sparkles.length)
-			sparkles[i].draw();
+		float w = sparkle.getWidth();
+		float h = sparkle.getHeight();
+		sparkle.startUse();
+		for (int i = 0; i < sparkles.size(); i++) {
+			if (timer <= sparkles.delay[i]) {
+				continue;
+			}
+			float s = sparkles.scale[i];
+			sparkle.drawEmbedded(sparkles.x[i] - w / 2 * s,
+					sparkles.y[i] - h / 2 * s, w * s, h * s);
 		}
+		sparkle.endUse();
 		GL11.glAlphaFunc(GL11.GL_GREATER, 0.95f);
 		GL11.glBlendFunc(GL11.GL_DST_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
 	}
-	
-	public float[] getPoint(){
-		// add a new sparkle
-		float source_x = origin.getXCenter() - origin.getWidth()/3
-				+ (float) Math.random() * origin.getWidth()/3*2;
-		float source_y = origin.getYCenter() - origin.getHeight()/3
-				+ (float) Math.random() * origin.getHeight()/3*2;
-		return new float[]{source_x,source_y};
-	}
 
+	/* Somewhere in the middle two thirds of the origin. */
+	private float pointX() {
+		return origin.getXCenter() - origin.getWidth() / 3
+				+ random.nextFloat() * origin.getWidth() / 3 * 2;
+	}
 
-	// A point class
-	private class Sparkle {
-		float x;
-		float y;
-		private SpriteSheet image;
-		private float scale;
-		private Sparkler daddy;
-
-		public Sparkle(float x, float y, Sparkler s) throws SlickException {
-			daddy = s;
-			this.x = x;
-			this.y = y;
-            image = new SpriteSheet("entities/sparkle/spark.png", 20, 20);
-		}
-		
-		public void draw(){
-			GL11.glBlendFunc(GL11.GL_SRC_ALPHA,GL11.GL_ONE_MINUS_SRC_ALPHA);
-			image.draw(x-sparkle.getWidth()/2*scale, y-sparkle.getHeight()/2*scale, scale);
-			GL11.glBlendFunc(GL11.GL_DST_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-				
-		}
-		
-		public void update(int delta){
-			if(scale<MAX_SCALEUP){
-				scale += (float)delta*increment;
-			}
-			else renewPoint();
-		}
-		private void renewPoint(){
-			scale = 0.1f;
-			float[] newPoint = daddy.getPoint();
-			x = newPoint[0];
-			y = newPoint[1];
-		}
+	private float pointY() {
+		return origin.getYCenter() - origin.getHeight() / 3
+				+ random.nextFloat() * origin.getHeight() / 3 * 2;
 	}
+
 }
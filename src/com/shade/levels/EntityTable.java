@@ -0,0 +1,146 @@
+package com.shade.levels;
+
+import java.util.HashMap;
+
+import org.newdawn.slick.SlickException;
+
+import com.shade.entities.Basket;
+import com.shade.entities.Block;
+import com.shade.entities.Dome;
+import com.shade.entities.Door;
+import com.shade.entities.Fence;
+import com.shade.entities.MockPlayer;
+import com.shade.entities.Player;
+import com.shade.entities.SandPit;
+import com.shade.entities.Slider;
+import com.shade.entities.TransparentDoor;
+import com.shade.entities.TransparentFence;
+import com.shade.entities.Umbrella;
+import com.shade.entities.bird.Bird;
+import com.shade.entities.monster.Monster;
+import com.shade.entities.treasure.Treasure;
+import com.shade.levels.LevelData.Entry;
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * Builds entities from level entries by element name.
+ *
+ * Each element a level file may contain maps to a maker which calls the
+ * entity's constructor directly, so loading a level doesn't go through
+ * reflection.
+ */
+class EntityTable {
+
+    private interface Maker {
+        LuminousEntity make(Entry e) throws SlickException;
+    }
+
+    private static final HashMap<String, Maker> makers = new HashMap<String, Maker>();
+
+    static {
+        makers.put("Block", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Block(x(e), y(e), e.get(LevelData.Z), e.get(LevelData.D));
+            }
+        });
+        makers.put("Dome", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Dome(x(e), y(e), e.get(LevelData.Z), e.get(LevelData.D));
+            }
+        });
+        makers.put("Basket", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Basket(x(e), y(e));
+            }
+        });
+        makers.put("Player", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Player(x(e), y(e));
+            }
+        });
+        makers.put("MockPlayer", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new MockPlayer(x(e), y(e));
+            }
+        });
+        makers.put("Fence", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Fence(x(e), y(e), e.get(LevelData.Z), e.get(LevelData.FACING));
+            }
+        });
+        makers.put("Door", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Door(x(e), y(e), e.get(LevelData.Z), e.get(LevelData.FACING));
+            }
+        });
+        makers.put("Monster", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Monster(x(e), y(e), e.get(LevelData.RANGE), e.speed());
+            }
+        });
+        makers.put("Bird", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Bird(x(e), y(e), e.get(LevelData.RANGE), e.speed());
+            }
+        });
+        makers.put("Sand", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new SandPit(x(e), y(e), e.get(LevelData.D), e.get(LevelData.TYPE));
+            }
+        });
+        makers.put("Slider", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Slider(x(e), y(e), e.get(LevelData.Z), e.get(LevelData.FACING),
+                        e.get(LevelData.RANGE), e.speed());
+            }
+        });
+        makers.put("TransparentDoor", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new TransparentDoor(x(e), y(e), e.get(LevelData.Z),
+                        e.get(LevelData.FACING));
+            }
+        });
+        makers.put("TransparentFence", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new TransparentFence(x(e), y(e), e.get(LevelData.Z),
+                        e.get(LevelData.FACING));
+            }
+        });
+        makers.put("Treasure", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Treasure(x(e), y(e), e.get(LevelData.Z));
+            }
+        });
+        makers.put("Umbrella", new Maker() {
+            public LuminousEntity make(Entry e) throws SlickException {
+                return new Umbrella(x(e), y(e));
+            }
+        });
+    }
+
+    private EntityTable() {
+        // static only
+    }
+
+    /** Return true if levels may contain elements with this name. */
+    public static boolean knows(String name) {
+        return makers.containsKey(name);
+    }
+
+    public static LuminousEntity make(Entry e) throws SlickException {
+        Maker m = makers.get(e.name());
+        if (m == null) {
+            throw new SlickException("Unknown level element " + e.name() + ".");
+        }
+        return m.make(e);
+    }
+
+    private static int x(Entry e) {
+        return e.get(LevelData.X);
+    }
+
+    private static int y(Entry e) {
+        return e.get(LevelData.Y);
+    }
+
+}
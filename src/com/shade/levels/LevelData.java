@@ -0,0 +1,135 @@
+package com.shade.levels;
+
+import java.util.ArrayList;
+
+import org.newdawn.slick.SlickException;
+
+import com.shade.entities.mushroom.MushroomFactory;
+import com.shade.lighting.LuminousEntity;
+import com.shade.util.Rng;
+
+/**
+ * Everything a level file says, before any entities have been built.
+ *
+ * Filled in either from XML by LevelSerial or from the precompiled binary
+ * form by LevelFormat. Entities are built from their entries through the
+ * EntityTable.
+ */
+public class LevelData {
+
+    /* Integer attributes an entry may have, in the order they're stored. */
+    public static final int X = 0, Y = 1, Z = 2, D = 3, TYPE = 4, FACING = 5,
+            RANGE = 6;
+    /* Bit set in an entry's mask if it has a speed. */
+    public static final int SPEED = 7;
+
+    static final String[] ATTRIBUTES = { "x", "y", "z", "d", "type", "facing",
+            "range" };
+
+    /* Stands in for a level's mushrooms or par if it doesn't say. */
+    static final int MISSING = -1;
+
+    private int mushrooms;
+    private int par;
+    private ArrayList<Entry> entries;
+
+    public LevelData(int mushrooms, int par) {
+        this.mushrooms = mushrooms;
+        this.par = par;
+        entries = new ArrayList<Entry>();
+    }
+
+    public void add(Entry e) {
+        entries.add(e);
+    }
+
+    public int mushrooms() throws SlickException {
+        if (mushrooms == MISSING) {
+            throw new SlickException("Level has no mushrooms.");
+        }
+        return mushrooms;
+    }
+
+    public int par() throws SlickException {
+        if (par == MISSING) {
+            throw new SlickException("Level has no par.");
+        }
+        return par;
+    }
+
+    /* As stored, MISSING included. */
+    int rawMushrooms() {
+        return mushrooms;
+    }
+
+    int rawPar() {
+        return par;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Entry get(int i) {
+        return entries.get(i);
+    }
+
+    public MushroomFactory factory(Rng random) throws SlickException {
+        return new MushroomFactory(mushrooms(), random);
+    }
+
+    public LuminousEntity[] entities() throws SlickException {
+        LuminousEntity[] built = new LuminousEntity[entries.size()];
+        for (int i = 0; i < built.length; i++) {
+            built[i] = EntityTable.make(entries.get(i));
+        }
+        return built;
+    }
+
+    /**
+     * One element of a level: what it is and the attributes it was given.
+     */
+    public static class Entry {
+
+        private String name;
+        private int mask;
+        private int[] values;
+        private float speed;
+
+        public Entry(String name) {
+            this.name = name;
+            values = new int[ATTRIBUTES.length];
+        }
+
+        public String name() {
+            return name;
+        }
+
+        int mask() {
+            return mask;
+        }
+
+        public boolean has(int attribute) {
+            return (mask & (1 << attribute)) != 0;
+        }
+
+        public int get(int attribute) {
+            return values[attribute];
+        }
+
+        public float speed() {
+            return speed;
+        }
+
+        public void set(int attribute, int value) {
+            values[attribute] = value;
+            mask |= 1 << attribute;
+        }
+
+        public void setSpeed(float s) {
+            speed = s;
+            mask |= 1 << SPEED;
+        }
+    }
+
+}
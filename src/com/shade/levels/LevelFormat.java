@@ -0,0 +1,212 @@
+package com.shade.levels;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * Precompiled levels.
+ *
+ * The build turns each levels/*.xml into a levels/*.lvl next to it so the
+ * game can skip parsing XML. The layout is:
+ *
+ * <pre>
+ * int     magic, &quot;SHLV&quot;
+ * short   version
+ * int     mushrooms, or -1 if the level doesn't say
+ * int     par, or -1 if the level doesn't say
+ * short   number of element names, followed by each name
+ * short   number of entries, followed by each entry:
+ *   byte  index of the element's name
+ *   byte  mask of the attributes present, bit i for LevelData attribute i
+ *   int   value of each attribute present, in LevelData order
+ *   float speed, if bit LevelData.SPEED is set
+ * </pre>
+ *
+ * Run main with a source and destination directory to compile a set of
+ * levels; ant compile does this for res/levels.
+ */
+public class LevelFormat {
+
+    public static final String EXTENSION = ".lvl";
+
+    private static final int MAGIC = 0x53484C56;
+    private static final short VERSION = 1;
+
+    private LevelFormat() {
+        // static only
+    }
+
+    /**
+     * Return where the compiled form of the XML level at path would be.
+     */
+    public static String compiledPath(String path) {
+        int dot = path.lastIndexOf('.');
+        return ((dot < 0) ? path : path.substring(0, dot)) + EXTENSION;
+    }
+
+    public static boolean exists(String path) {
+        try {
+            return ResourceLoader.getResource(path) != null;
+        } catch (RuntimeException e) {
+            // Slick complains loudly rather than returning null
+            return false;
+        }
+    }
+
+    public static LevelData read(String path) throws SlickException {
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(ResourceLoader.getResourceAsStream(path));
+            return read(in);
+        } catch (IOException e) {
+            throw new SlickException("Failed to read level " + path + ".", e);
+        } finally {
+            close(in);
+        }
+    }
+
+    public static LevelData read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a compiled level.");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported level version " + version + ".");
+        }
+        LevelData data = new LevelData(in.readInt(), in.readInt());
+        String[] names = new String[in.readShort()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+        int entries = in.readShort();
+        for (int i = 0; i < entries; i++) {
+            LevelData.Entry e = new LevelData.Entry(names[in.readByte() & 0xff]);
+            int mask = in.readByte() & 0xff;
+            for (int a = 0; a < LevelData.ATTRIBUTES.length; a++) {
+                if ((mask & (1 << a)) != 0) {
+                    e.set(a, in.readInt());
+                }
+            }
+            if ((mask & (1 << LevelData.SPEED)) != 0) {
+                e.setSpeed(in.readFloat());
+            }
+            data.add(e);
+        }
+        return data;
+    }
+
+    public static void write(LevelData data, OutputStream stream)
+            throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        ArrayList<String> names = new ArrayList<String>();
+        for (int i = 0; i < data.size(); i++) {
+            if (!names.contains(data.get(i).name())) {
+                names.add(data.get(i).name());
+            }
+        }
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(data.rawMushrooms());
+        out.writeInt(data.rawPar());
+        out.writeShort(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+        out.writeShort(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            LevelData.Entry e = data.get(i);
+            out.writeByte(names.indexOf(e.name()));
+            out.writeByte(e.mask());
+            for (int a = 0; a < LevelData.ATTRIBUTES.length; a++) {
+                if (e.has(a)) {
+                    out.writeInt(e.get(a));
+                }
+            }
+            if (e.has(LevelData.SPEED)) {
+                out.writeFloat(e.speed());
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Compile every XML level in the first directory into the second.
+     *
+     * Levels which are already up to date are left alone. Fails if a level
+     * can't be parsed or refers to an element the game doesn't know about.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelFormat <xml dir> <output dir>");
+            System.exit(2);
+        }
+        File source = new File(args[0]);
+        File target = new File(args[1]);
+        target.mkdirs();
+        File[] levels = source.listFiles();
+        if (levels == null) {
+            System.err.println("No levels in " + source);
+            System.exit(1);
+        }
+        int compiled = 0;
+        try {
+            for (File xml : levels) {
+                if (!xml.getName().endsWith(".xml")) {
+                    continue;
+                }
+                File lvl = new File(target, compiledPath(xml.getName()));
+                if (lvl.lastModified() > xml.lastModified()) {
+                    continue;
+                }
+                compile(xml, lvl);
+                compiled++;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        System.out.println("Compiled " + compiled + " level(s) into " + target);
+    }
+
+    private static void compile(File xml, File lvl) throws SlickException,
+            IOException {
+        LevelData data = new LevelSerial(xml.getPath()).data();
+        for (int i = 0; i < data.size(); i++) {
+            String name = data.get(i).name();
+            if (!EntityTable.knows(name)) {
+                throw new SlickException(xml + ": unknown element " + name);
+            }
+        }
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(lvl));
+        try {
+            write(data, out);
+        } finally {
+            close(out);
+        }
+    }
+
+    private static void close(Closeable c) {
+        if (c == null) {
+            return;
+        }
+        try {
+            c.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+}
@@ -1,18 +1,46 @@
 package com.shade.levels;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import org.newdawn.slick.SlickException;
 
 /**
  * Convenient iterator for fetching the next level.
  *
+ * Parsed levels are kept as templates in a small LRU cache so playing a level
+ * again only has to build its entities. Call prefetch while the player is
+ * busy elsewhere to have a level read on a background thread, then call
+ * prepare once a frame from the render thread: as soon as the template is in
+ * it builds the level, loading its textures and sounds, so the get which
+ * follows hands it straight over. Textures have to be created on the render
+ * thread which is why that part doesn't happen in the background.
+ *
+ * A level which can't be read or built is reported once and remembered;
+ * after that prefetch and prepare leave it alone and get returns null.
+ *
+ * None of the methods are thread safe; call them from the render thread.
+ *
  * @author Alexander Schearer <aschearer@gmail.com>
  */
 public class LevelManager {
 
 
     public static final int NUM_LEVELS = 11;
-    
-    /* List of levels to create using reflection. */
+
+    /* How many parsed levels to hold on to. */
+    private static final int CACHE_SIZE = 4;
+
+    private static ExecutorService loader;
+
+    /* List of levels, in the order they are played. */
     private String[] levels = {
         "levels/level-0.xml",
         "levels/level-1.xml",
@@ -35,16 +63,172 @@ public class LevelManager {
         
     };
 
-  
+    private LinkedHashMap<Integer, LevelData> templates;
+    private HashMap<Integer, Future<LevelData>> pending;
+    private HashMap<Integer, SlickException> failed;
+    private Model prepared;
+    private int preparedIndex;
+
+    public LevelManager() {
+        templates = new LinkedHashMap<Integer, LevelData>(CACHE_SIZE, .75f,
+                true) {
+            protected boolean removeEldestEntry(Map.Entry<Integer, LevelData> e) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        pending = new HashMap<Integer, Future<LevelData>>();
+        failed = new HashMap<Integer, SlickException>();
+        preparedIndex = -1;
+    }
+
+    /* Play the given levels instead. */
+    LevelManager(String... levels) {
+        this();
+        this.levels = levels;
+    }
+
+    /**
+     * Return level i ready to play, building it unless it was prepared
+     * already.
+     */
     public Model get(int i) {
-        String path = levels[i];
-        Shell level = null;
+        if (i == preparedIndex) {
+            Model level = prepared;
+            prepared = null;
+            preparedIndex = -1;
+            return level;
+        }
+        return build(i);
+    }
+
+    /**
+     * Start reading level i in the background if it isn't cached already.
+     */
+    public void prefetch(int i) {
+        if (i < 0 || i >= levels.length || templates.containsKey(i)
+                || pending.containsKey(i) || failed.containsKey(i)) {
+            return;
+        }
+        final String path = levels[i];
+        pending.put(i, loader().submit(new Callable<LevelData>() {
+            public LevelData call() throws SlickException {
+                return read(path);
+            }
+        }));
+    }
+
+    /**
+     * Build level i ahead of time once it has been read. Does nothing until
+     * the template is in, so it is cheap to call every frame.
+     *
+     * @return true once the next get(i) will return without building.
+     */
+    public boolean prepare(int i) {
+        if (i == preparedIndex) {
+            return true;
+        }
+        if (i < 0 || i >= levels.length || failed.containsKey(i)) {
+            return false;
+        }
+        Future<LevelData> f = pending.get(i);
+        if (!templates.containsKey(i) && (f == null || !f.isDone())) {
+            prefetch(i);
+            return false;
+        }
+        Model level = build(i);
+        if (level == null) {
+            return false;
+        }
+        prepared = level;
+        preparedIndex = i;
+        return true;
+    }
+
+    /**
+     * Return why level i couldn't be read or built, or null if it hasn't
+     * failed.
+     */
+    public SlickException failure(int i) {
+        return failed.get(i);
+    }
+
+    /*
+     * Build level i, or return null if it can't be. The first failure is
+     * reported and remembered so it isn't tried again.
+     */
+    private Model build(int i) {
+        if (failed.containsKey(i)) {
+            return null;
+        }
         try {
-            level = new Shell(path);
+            return new Shell(template(i));
         } catch (SlickException e) {
+            failed.put(i, e);
             e.printStackTrace();
         }
-        return level;
+        return null;
+    }
+
+    /*
+     * Return the parsed level i, waiting on or doing the read if it isn't
+     * cached.
+     */
+    private LevelData template(int i) throws SlickException {
+        LevelData data = templates.get(i);
+        if (data != null) {
+            return data;
+        }
+        Future<LevelData> f = pending.remove(i);
+        if (f == null) {
+            data = read(levels[i]);
+        } else {
+            data = await(f, levels[i]);
+        }
+        templates.put(i, data);
+        return data;
+    }
+
+    /**
+     * Read level at path, from its precompiled form if the build made one
+     * and from the XML otherwise.
+     */
+    private static LevelData read(String path) throws SlickException {
+        String compiled = LevelFormat.compiledPath(path);
+        if (LevelFormat.exists(compiled)) {
+            return LevelFormat.read(compiled);
+        }
+        return new LevelSerial(path).data();
+    }
+
+    private static LevelData await(Future<LevelData> f, String path)
+            throws SlickException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SlickException) {
+                throw (SlickException) e.getCause();
+            }
+            throw new SlickException("Failed to read level " + path + ".", e
+                    .getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlickException("Interrupted reading level " + path + ".");
+        }
+    }
+
+    /* One daemon thread shared by every manager so it never holds up exit. */
+    private static synchronized ExecutorService loader() {
+        if (loader == null) {
+            loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "level-loader");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                }
+            });
+        }
+        return loader;
     }
 
 
@@ -3,13 +3,55 @@ package com.shade.levels;
 import com.shade.controls.DayPhaseTimer;
 import com.shade.crash.CrashLevel;
 import com.shade.entities.mushroom.MushroomFactory;
+import com.shade.util.Rng;
 
 public abstract class Model extends CrashLevel {
+
+    /**
+     * Each part of the game draws its random numbers from its own stream, so
+     * a change in how often one of them rolls doesn't shift the others.
+     */
+    public enum Stream {
+        SPAWNS, MUSHROOMS, MONSTERS, BIRDS, MOLES, TREASURE
+    }
+
+    private static long seeds = System.nanoTime();
 	
 	private DayPhaseTimer daytimer;
+    private Rng[] streams;
+    private long seed;
 
     public Model(int w, int h, int c) {
         super(w, h, c);
+        streams = new Rng[Stream.values().length];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = new Rng(0);
+        }
+        setSeed(Rng.mix(seeds++));
+    }
+
+    /**
+     * Return the generator for one part of the game. It is the same object
+     * for the life of the level, so it's fine to hold on to.
+     */
+    public Rng random(Stream s) {
+        return streams[s.ordinal()];
+    }
+
+    /**
+     * Restart every stream from the given seed. Levels get a different seed
+     * each time unless one is set; set one to play a level out the same way
+     * again.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        for (int i = 0; i < streams.length; i++) {
+            streams[i].setSeed(Rng.mix(seed + i));
+        }
+    }
+
+    public long getSeed() {
+        return seed;
     }
     
     public abstract MushroomFactory getMushroomFactory();
@@ -19,13 +19,37 @@ public class Shell extends Model {
     private int par;
 
     public Shell(String path) throws SlickException {
+        this(new LevelSerial(path).data());
+    }
+
+    public Shell(LevelData data) throws SlickException {
         super(WIDTH, HEIGHT, CELL);
-        LevelSerial l = new LevelSerial(path);
-        for (LuminousEntity e : l.entities()) {
+        populate(data);
+    }
+
+    /**
+     * Build the level with its random numbers coming from seed, so it plays
+     * out the same way every time given the same input.
+     */
+    public Shell(String path, long seed) throws SlickException {
+        this(new LevelSerial(path).data(), seed);
+    }
+
+    public Shell(LevelData data, long seed) throws SlickException {
+        super(WIDTH, HEIGHT, CELL);
+        // entities take their streams as they're added, so seed first
+        setSeed(seed);
+        populate(data);
+    }
+
+    private void populate(LevelData data) throws SlickException {
+        for (LuminousEntity e : data.entities()) {
             add(e);
         }
-        factory = l.factory();
-        par = l.par();
+        factory = data.factory(random(Stream.MUSHROOMS));
+        par = data.par();
+        // levels are built ahead of play, so get the slow part over with
+        bake();
     }
 
     @Override
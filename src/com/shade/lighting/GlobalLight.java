@@ -37,17 +37,7 @@ public class GlobalLight implements LightSource {
         LightMask.keepStencil();
 
         GameContainer c = game.getContainer();
-        if(timer.getDaylightStatus()==DayPhaseTimer.DayLightStatus.DAY)
-        {
-        g.setColor(new Color(0,0,0,1f));
-        }
-        else
-        {
-        	float factor = (1-timer.timeLeft())*0.4f;
-        	if(timer.getDaylightStatus()==DayPhaseTimer.DayLightStatus.NIGHT) factor = 0;
-        	if(timer.getDaylightStatus()==DayPhaseTimer.DayLightStatus.DAWN) factor = timer.timeLeft()*0.4f;
-        	g.setColor(new Color(0,0,0,0.6f+factor));
-        }
+        g.setColor(new Color(0, 0, 0, getIntensity()));
         g.fillRect(0, 0, c.getWidth(), c.getHeight());
         g.setColor(Color.white);
 
@@ -65,4 +55,30 @@ public class GlobalLight implements LightSource {
         return e.castShadow(angle, depth);
     }
 
+    public float getAngle() {
+        return angle;
+    }
+
+    public float getDepth() {
+        return depth;
+    }
+
+    /**
+     * The alpha the light leaves outside of the shadows: full by day and
+     * fading to 0.6 through dusk, then back up through dawn.
+     */
+    public float getIntensity() {
+        if (timer.getDaylightStatus() == DayPhaseTimer.DayLightStatus.DAY) {
+            return 1f;
+        }
+        float factor = (1 - timer.timeLeft()) * 0.4f;
+        if (timer.getDaylightStatus() == DayPhaseTimer.DayLightStatus.NIGHT) {
+            factor = 0;
+        }
+        if (timer.getDaylightStatus() == DayPhaseTimer.DayLightStatus.DAWN) {
+            factor = timer.timeLeft() * 0.4f;
+        }
+        return 0.6f + factor;
+    }
+
 }
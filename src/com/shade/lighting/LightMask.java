@@ -1,8 +1,11 @@
 package com.shade.lighting;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.LinkedList;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.GameContainer;
@@ -13,6 +16,7 @@ import org.newdawn.slick.state.StateBasedGame;
 
 import com.shade.controls.DayPhaseTimer;
 import com.shade.entities.Roles;
+import com.shade.util.Profiler;
 
 /**
  * A view which renders a set of entities, lights, and background images in such
@@ -24,11 +28,30 @@ import com.shade.entities.Roles;
  * <em>Note that calling render will update your entities' luminosity. Please
  * direct any hate mail to JJ Jou.</em>
  *
+ * By default luminosity is sampled for every entity with a single read of the
+ * framebuffer's alpha channel, which also covers the points of any entity
+ * which has {@link LightProbes}. The old behavior, one glReadPixels call per
+ * entity and probe, is still available through {@link Sampling#PER_ENTITY}.
+ * With {@link Sampling#ANALYTIC} the mask leaves luminosity alone and expects
+ * it to be computed from a {@link ShadowMap} during the update instead.
+ *
  * @author JJ Jou <j.j@duke.edu>
  * @author Alexander Schearer <aschearer@gmail.com>
  */
 public class LightMask {
 
+    /**
+     * How entity luminosity is read back from the framebuffer.
+     */
+    public enum Sampling {
+        /* Read one pixel per entity as it is drawn. */
+        PER_ENTITY,
+        /* Read the region covering every entity once before drawing. */
+        BATCHED,
+        /* Don't read anything back; luminosity comes from a ShadowMap. */
+        ANALYTIC
+    }
+
     /* Set to remove white borders from player, mushrooms, etc. */
     private static final float MAGIC_ALPHA_VALUE = .65f;
     private static final float MAGIC_ARROW_VALUE = .1f;
@@ -40,11 +63,27 @@ public class LightMask {
 
     private int threshold;
     private LinkedList<LightSource> lights;
+    private Sampling sampling;
+    private ByteBuffer pixels;
+    // the region read by the last batched sample
+    private int minX, minY, maxX, maxY;
+    // glGetInteger wants room for sixteen values whatever it's asked for
+    private IntBuffer state;
 
     public LightMask(int threshold, DayPhaseTimer time) {
         this.threshold = threshold;
         lights = new LinkedList<LightSource>();
         timer = time;
+        sampling = Sampling.BATCHED;
+        state = BufferUtils.createIntBuffer(16);
+    }
+
+    public void setSampling(Sampling s) {
+        sampling = s;
+    }
+
+    public Sampling getSampling() {
+        return sampling;
     }
 
     public void add(LightSource light) {
@@ -81,6 +120,7 @@ public class LightMask {
 
     private void renderLights(StateBasedGame game, Graphics g,
                               LuminousEntity... entities) {
+        long start = Profiler.start();
     	enableStencil();
         for (LightSource light : lights) {
             light.render(game, g, entities);
@@ -92,6 +132,7 @@ public class LightMask {
         GameContainer c = game.getContainer();
         g.fillRect(0, 0, c.getWidth(), c.getHeight());
         g.setColor(Color.white);
+        Profiler.stop(Profiler.Scope.LIGHTS, start);
     }
 
     private void renderBackgrounds(StateBasedGame game, Graphics g,
@@ -104,7 +145,12 @@ public class LightMask {
 
     private void renderEntities(StateBasedGame game, Graphics g,
                                 LuminousEntity... entities) {
+        long start = Profiler.start();
         Arrays.sort(entities);
+        boolean batched = (sampling != Sampling.PER_ENTITY);
+        if (sampling == Sampling.BATCHED) {
+            sampleLuminosity(game, entities);
+        }
         int i = 0;
         GL11.glEnable(GL11.GL_ALPHA_TEST);
         GL11.glAlphaFunc(GL11.GL_GREATER, 0.2f);
@@ -115,7 +161,9 @@ public class LightMask {
             } else {
                 GL11.glAlphaFunc(GL11.GL_GREATER, 0.95f);
             }
-            entities[i].setLuminosity(getLuminosityFor(entities[i], g));
+            if (!batched) {
+                sampleLuminosity(entities[i], g);
+            }
             entities[i].render(game, g);
             i++;
         }
@@ -124,10 +172,13 @@ public class LightMask {
         GL11.glDisable(GL11.GL_ALPHA_TEST);
         GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
         while (i < entities.length) {
-        	entities[i].setLuminosity(getLuminosityFor(entities[i], g));
+            if (!batched) {
+                sampleLuminosity(entities[i], g);
+            }
             entities[i].render(game, g);
             i++;
         }
+        Profiler.stop(Profiler.Scope.ENTITIES, start);
         //GL11.glDisable(GL11.GL_ALPHA_TEST);
     }
     
@@ -135,8 +186,101 @@ public class LightMask {
         return (e.getRole() == Roles.DUMMY.ordinal());
     }
 
-    private float getLuminosityFor(LuminousEntity entity, Graphics g) {
-        return g.getPixel((int) entity.getXCenter(), (int) entity.getYCenter()).a;
+    private void sampleLuminosity(LuminousEntity entity, Graphics g) {
+        long start = Profiler.start();
+        entity.setLuminosity(g.getPixel((int) entity.getXCenter(),
+                (int) entity.getYCenter()).a);
+        if (entity instanceof LightProbes) {
+            LightProbes p = (LightProbes) entity;
+            for (int i = 0; i < p.getProbeCount(); i++) {
+                p.setProbe(i, g.getPixel((int) p.getProbeX(i),
+                        (int) p.getProbeY(i)).a);
+            }
+        }
+        Profiler.stop(Profiler.Scope.READBACK, start);
+    }
+
+    /**
+     * Read the alpha of the smallest screen region covering every entity's
+     * center and probes in one go and hand each entity its luminosity.
+     *
+     * Rows are addressed the same way Graphics.getPixel does, but the region
+     * is read before any entity is drawn. PER_ENTITY reads each pixel just
+     * before its entity is drawn, so where entities overlap it sees the ones
+     * already drawn on top of the light while this sees only the light.
+     * Centers off screen are clamped to the nearest edge here. The two modes
+     * can differ in both cases.
+     */
+    private void sampleLuminosity(StateBasedGame game, LuminousEntity[] entities) {
+        if (entities.length == 0) {
+            return;
+        }
+        long start = Profiler.start();
+        GameContainer c = game.getContainer();
+        int width = c.getWidth();
+        int height = c.getHeight();
+
+        minX = width;
+        minY = height;
+        maxX = 0;
+        maxY = 0;
+        for (LuminousEntity e : entities) {
+            cover(e.getXCenter(), e.getYCenter(), width, height);
+            if (e instanceof LightProbes) {
+                LightProbes p = (LightProbes) e;
+                for (int i = 0; i < p.getProbeCount(); i++) {
+                    cover(p.getProbeX(i), p.getProbeY(i), width, height);
+                }
+            }
+        }
+
+        int w = maxX - minX + 1;
+        int h = maxY - minY + 1;
+        if (pixels == null || pixels.capacity() < w * h) {
+            pixels = BufferUtils.createByteBuffer(width * (height + 1));
+        }
+        pixels.clear();
+        state.clear();
+        GL11.glGetInteger(GL11.GL_PACK_ALIGNMENT, state);
+        int alignment = state.get(0);
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        GL11.glReadPixels(minX, height - maxY, w, h, GL11.GL_ALPHA,
+                GL11.GL_UNSIGNED_BYTE, pixels);
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, alignment);
+
+        for (LuminousEntity e : entities) {
+            e.setLuminosity(alpha(e.getXCenter(), e.getYCenter(), w, width,
+                    height));
+            if (e instanceof LightProbes) {
+                LightProbes p = (LightProbes) e;
+                for (int i = 0; i < p.getProbeCount(); i++) {
+                    p.setProbe(i, alpha(p.getProbeX(i), p.getProbeY(i), w,
+                            width, height));
+                }
+            }
+        }
+        Profiler.stop(Profiler.Scope.READBACK, start);
+    }
+
+    /* Grow the region to be read to take in the point. */
+    private void cover(float px, float py, int width, int height) {
+        int x = clamp((int) px, 0, width - 1);
+        int y = clamp((int) py, 1, height);
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+
+    /* The alpha read back at the point, w pixels to a row. */
+    private float alpha(float px, float py, int w, int width, int height) {
+        int x = clamp((int) px, 0, width - 1);
+        int y = clamp((int) py, 1, height);
+        return (pixels.get((maxY - y) * w + (x - minX)) & 0xff) / 255f;
+    }
+
+    private static int clamp(int v, int low, int high) {
+        return Math.max(low, Math.min(high, v));
     }
 
     /**
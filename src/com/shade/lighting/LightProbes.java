@@ -0,0 +1,23 @@
+package com.shade.lighting;
+
+/**
+ * Something which measures the light at several points rather than just at
+ * its center, like the vents a sizzle rises from.
+ *
+ * Whatever works out an entity's luminosity also hands each of its probes the
+ * light falling on the probe's point, if the entity has any.
+ */
+public interface LightProbes {
+
+    public int getProbeCount();
+
+    public float getProbeX(int i);
+
+    public float getProbeY(int i);
+
+    /**
+     * How much light falls on the ith probe.
+     */
+    public void setProbe(int i, float l);
+
+}
@@ -0,0 +1,80 @@
+package com.shade.lighting;
+
+import org.newdawn.slick.geom.Shape;
+
+/**
+ * Remembers the last shadow an obstacle cast so it isn't rebuilt every frame.
+ *
+ * The sun only creeps along, so the light direction is snapped to one of a
+ * fixed number of buckets and the shadow is cast from the bucket's angle. As
+ * long as the bucket, depth and the caster's shape and position stay the same
+ * the cached shadow is handed back untouched.
+ *
+ * Callers must treat the returned shape as read only since it's shared.
+ */
+public class ShadowCache {
+
+    /* Roughly a third of a degree per bucket. */
+    private static final int BUCKETS = 1024;
+    private static final float BUCKET_WIDTH = (float) (2 * Math.PI / BUCKETS);
+
+    private Shape shadow;
+    private Shape caster;
+    private int bucket;
+    private float depth, x, y;
+    private boolean valid;
+
+    /**
+     * Check whether the cached shadow still applies. If not, the cache keys
+     * are updated and the caller should build a new shadow using
+     * {@link #angle()} and hand it to {@link #set(Shape)}.
+     */
+    public boolean stale(float direction, float depth, Shape caster) {
+        int b = bucket(direction);
+        float cx = caster.getCenterX();
+        float cy = caster.getCenterY();
+        if (valid && b == bucket && depth == this.depth
+                && caster == this.caster && cx == x && cy == y) {
+            return false;
+        }
+        bucket = b;
+        this.depth = depth;
+        this.caster = caster;
+        x = cx;
+        y = cy;
+        valid = false;
+        return true;
+    }
+
+    /**
+     * The light direction the cached shadow should be cast from.
+     */
+    public float angle() {
+        return direction(bucket);
+    }
+
+    public Shape set(Shape s) {
+        shadow = s;
+        valid = true;
+        return s;
+    }
+
+    public Shape get() {
+        return shadow;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    /* The bucket a light direction is snapped to. */
+    static int bucket(float direction) {
+        return Math.round(direction / BUCKET_WIDTH);
+    }
+
+    /* The direction shadows are cast from for a bucket. */
+    static float direction(int bucket) {
+        return bucket * BUCKET_WIDTH;
+    }
+
+}
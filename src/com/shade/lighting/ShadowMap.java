@@ -0,0 +1,207 @@
+package com.shade.lighting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.newdawn.slick.geom.Shape;
+
+import com.shade.entities.Roles;
+
+/**
+ * Answers "is this point in the shade" without touching the framebuffer.
+ *
+ * The shadows cast by every obstacle are binned into a coarse grid of cells
+ * covering the level. Looking up a point only tests the shadows which overlap
+ * its cell. The light's direction is snapped to the same buckets as a
+ * {@link ShadowCache}, and the shadows are only recast when it moves into
+ * another bucket or when an obstacle has moved, been added or been removed.
+ *
+ * The luminosity values mirror what the light mask reads back from the
+ * screen: the shade only gets the mask's ambient light, while lit areas get
+ * that plus whatever the global light gives at this time of day.
+ *
+ * Entities may be passed in an array longer than their number as long as
+ * the first unused slot is null, as toArray(LuminousEntity[]) leaves it.
+ */
+public class ShadowMap {
+
+    private final int width, height, cellSize, rows, cols;
+    private ArrayList<Shape>[] cells;
+
+    private int bucket;
+    private float depth;
+    private float lit, shade;
+    // every caster the shadows were cast from, with its x, y and z
+    private LuminousEntity[] casters;
+    private float[] places;
+    private int count;
+    private boolean built;
+    private int rebuilds;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public ShadowMap(int width, int height, int cellSize) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        cols = (width + cellSize - 1) / cellSize;
+        rows = (height + cellSize - 1) / cellSize;
+        cells = new ArrayList[rows * cols];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new ArrayList<Shape>();
+        }
+        casters = new LuminousEntity[16];
+        places = new float[16 * 3];
+        shade = LightMask.SHADE.a;
+        lit = 1;
+    }
+
+    /**
+     * Recast the shadows if the light or the obstacles have changed since the
+     * last call.
+     *
+     * @return true if the shadows were recast.
+     */
+    public boolean update(float angle, float depth, LuminousEntity... entities) {
+        int b = ShadowCache.bucket(angle);
+        if (built && b == bucket && this.depth == depth && still(entities)) {
+            return false;
+        }
+        bucket = b;
+        this.depth = depth;
+        rebuild(entities);
+        built = true;
+        rebuilds++;
+        return true;
+    }
+
+    public boolean update(GlobalLight light, LuminousEntity... entities) {
+        lit = Math.min(1, shade + light.getIntensity());
+        return update(light.getAngle(), light.getDepth(), entities);
+    }
+
+    /**
+     * Force the shadows to be recast on the next update.
+     */
+    public void invalidate() {
+        built = false;
+    }
+
+    public boolean shadowed(float x, float y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        ArrayList<Shape> shadows = cells[cell(x, y)];
+        for (int i = 0; i < shadows.size(); i++) {
+            if (shadows.get(i).contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public float luminosity(float x, float y) {
+        return shadowed(x, y) ? shade : lit;
+    }
+
+    /**
+     * Set the luminosity of each entity according to whether its center is in
+     * the shade, and of each of its probes if it has any.
+     */
+    public void illuminate(LuminousEntity... entities) {
+        for (int i = 0; i < entities.length && entities[i] != null; i++) {
+            LuminousEntity e = entities[i];
+            e.setLuminosity(luminosity(e.getXCenter(), e.getYCenter()));
+            if (e instanceof LightProbes) {
+                LightProbes p = (LightProbes) e;
+                for (int j = 0; j < p.getProbeCount(); j++) {
+                    p.setProbe(j, luminosity(p.getProbeX(j), p.getProbeY(j)));
+                }
+            }
+        }
+    }
+
+    /**
+     * How many times the shadows have been recast; handy when profiling.
+     */
+    public int rebuilds() {
+        return rebuilds;
+    }
+
+    /* Cast the shadows afresh and note where every caster stood. */
+    private void rebuild(LuminousEntity[] entities) {
+        for (ArrayList<Shape> c : cells) {
+            c.clear();
+        }
+        float angle = ShadowCache.direction(bucket);
+        count = 0;
+        for (int i = 0; i < entities.length && entities[i] != null; i++) {
+            LuminousEntity e = entities[i];
+            if (!caster(e)) {
+                continue;
+            }
+            if (count == casters.length) {
+                casters = Arrays.copyOf(casters, count * 2);
+                places = Arrays.copyOf(places, count * 2 * 3);
+            }
+            casters[count] = e;
+            places[count * 3] = e.getXCenter();
+            places[count * 3 + 1] = e.getYCenter();
+            places[count * 3 + 2] = e.getZIndex();
+            count++;
+            Shape shadow = e.castShadow(angle, depth);
+            if (shadow != null) {
+                bin(shadow);
+            }
+        }
+        Arrays.fill(casters, count, casters.length, null);
+    }
+
+    private void bin(Shape shadow) {
+        int x1 = clamp((int) shadow.getMinX() / cellSize, cols);
+        int x2 = clamp((int) shadow.getMaxX() / cellSize, cols);
+        int y1 = clamp((int) shadow.getMinY() / cellSize, rows);
+        int y2 = clamp((int) shadow.getMaxY() / cellSize, rows);
+        for (int y = y1; y <= y2; y++) {
+            for (int x = x1; x <= x2; x++) {
+                cells[y * cols + x].add(shadow);
+            }
+        }
+    }
+
+    /*
+     * Return true if the same casters stand in the same order and places as
+     * when the shadows were cast.
+     */
+    private boolean still(LuminousEntity[] entities) {
+        int n = 0;
+        for (int i = 0; i < entities.length && entities[i] != null; i++) {
+            LuminousEntity e = entities[i];
+            if (!caster(e)) {
+                continue;
+            }
+            if (n == count || casters[n] != e
+                    || places[n * 3] != e.getXCenter()
+                    || places[n * 3 + 1] != e.getYCenter()
+                    || places[n * 3 + 2] != e.getZIndex()) {
+                return false;
+            }
+            n++;
+        }
+        return n == count;
+    }
+
+    /* Only obstacles and umbrellas (dummies) cast shadows. */
+    private boolean caster(LuminousEntity e) {
+        int role = e.getRole();
+        return role == Roles.OBSTACLE.ordinal() || role == Roles.DUMMY.ordinal();
+    }
+
+    private int cell(float x, float y) {
+        return ((int) y / cellSize) * cols + ((int) x / cellSize);
+    }
+
+    private static int clamp(int i, int n) {
+        return Math.max(0, Math.min(n - 1, i));
+    }
+
+}
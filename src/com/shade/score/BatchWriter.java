@@ -2,56 +2,89 @@ package com.shade.score;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
-import java.net.URLEncoder;
-import java.util.prefs.Preferences;
-
-import com.shade.levels.LevelManager;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Post all of the scores in a csv file to a server.
+ * Post a chunk of scores to a server.
+ *
+ * The scores go as gzipped CSV, one record per score: name, score, level,
+ * special and key. The server skips any key it has seen already so a chunk
+ * which is sent again after a lost reply isn't counted twice. The
+ * UploadQueue decides what to send and when.
+ *
+ * Only a 422, or a reply of invalid, means the chunk itself is at fault.
+ * Anything else short of success, be it another error status, a login page
+ * from a captive portal or an older server which can't read the body, is
+ * taken as the server being out of reach for now, so the scores are kept.
  *
  * @author Alexander Schearer <aschearer@gmail.com>
  */
 public class BatchWriter {
-    
-    private static final String EMPTY_STRING = "";
-    private static final String SCORE_KEY = "scores";
-    private static final String SERVER = "http://anotherearlymorning.com/games/shade2/batch.php";
-   
-    
-    public boolean write() {
+
+    /* The server stored every score in the chunk. */
+    public static final int SENT = 0;
+    /* The server said the chunk holds a malformed record. */
+    public static final int REJECTED = 1;
+    /* The server couldn't be reached or didn't answer as expected. */
+    public static final int FAILED = 2;
+
+    private static final String SERVER = ScoreClient.endpoint("batch.php");
+    private static final int CONNECT_TIMEOUT = 2000;
+    private static final int READ_TIMEOUT = 4000;
+    private static final int UNPROCESSABLE = 422;
+
+    private String base;
+
+    public BatchWriter() {
+        this(SERVER);
+    }
+
+    public BatchWriter(String path) {
+        base = path;
+    }
+
+    public int write(List<String[]> chunk) {
         try {
             StringBuilder builder = new StringBuilder();
-            for (int i = 0; i < LevelManager.NUM_LEVELS; i++) {
-                builder.append(collectScores(i));
+            for (String[] record : chunk) {
+                builder.append(ScoreJournal.encode(record));
             }
-            String score = builder.toString();
-            score = score.trim();
-            String content = "scores=" + URLEncoder.encode(score, "US-ASCII");
-            URL url = new URL(SERVER);
+            URL url = new URL(base);
             URLConnection c = url.openConnection();
-            c.setConnectTimeout(2000);
+            c.setConnectTimeout(CONNECT_TIMEOUT);
+            c.setReadTimeout(READ_TIMEOUT);
             c.setDoOutput(true);
-            OutputStreamWriter o = new OutputStreamWriter(c.getOutputStream());
+            c.setRequestProperty("Content-Type", "text/csv; charset=UTF-8");
+            c.setRequestProperty("Content-Encoding", "gzip");
             // write the content
-            o.write(content);
-            o.flush();
+            OutputStream o = new GZIPOutputStream(c.getOutputStream());
+            o.write(builder.toString().getBytes("UTF-8"));
             o.close();
+            if (c instanceof HttpURLConnection) {
+                int status = ((HttpURLConnection) c).getResponseCode();
+                if (status == UNPROCESSABLE) {
+                    return REJECTED;
+                }
+                if (status != HttpURLConnection.HTTP_OK) {
+                    return FAILED;
+                }
+            }
             // read response and check for success
             BufferedReader i = new BufferedReader(new InputStreamReader(c
                     .getInputStream()));
             String response = i.readLine();
-            return response.equals("success");
+            i.close();
+            if ("success".equals(response)) {
+                return SENT;
+            }
+            return "invalid".equals(response) ? REJECTED : FAILED;
         } catch (Exception e) {
-            return false;
+            return FAILED;
         }
     }
-
-    private String collectScores(int level) {
-        Preferences prefs = Preferences.systemNodeForPackage(this.getClass());
-        return prefs.get(SCORE_KEY + level, EMPTY_STRING);
-    }
 }
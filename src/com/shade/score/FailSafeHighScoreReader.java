@@ -8,7 +8,7 @@ package com.shade.score;
  */
 public class FailSafeHighScoreReader implements HighScoreReader {
 
-    private static final String SERVER = "http://anotherearlymorning.com/games/shade2/board.php";
+    private static final String SERVER = ScoreClient.endpoint("board.php");
     
     private LocalHighScoreReader localReader;
     private RemoteHighScoreReader remoteReader;
@@ -0,0 +1,117 @@
+package com.shade.score;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The best scores for one level.
+ *
+ * Holds at most capacity scores in a min-heap with the weakest at the root,
+ * so offering a score costs O(log capacity) and turning one away costs a
+ * single comparison however many scores have been offered. Reading the
+ * board sorts a copy the first time after it changes and then hands back
+ * entries in order from that.
+ *
+ * Scores rank highest first. Between equal scores one which cleared the
+ * game ranks first, then whichever was made first.
+ */
+class Leaderboard {
+
+    /* Best first. */
+    private static final Comparator<ScoreJournal.Entry> RANK = new Comparator<ScoreJournal.Entry>() {
+        public int compare(ScoreJournal.Entry a, ScoreJournal.Entry b) {
+            return outranks(a, b) ? -1 : outranks(b, a) ? 1 : 0;
+        }
+    };
+
+    private ScoreJournal.Entry[] heap;
+    private ScoreJournal.Entry[] sorted;
+    private int size;
+    private boolean dirty;
+
+    public Leaderboard(int capacity) {
+        heap = new ScoreJournal.Entry[capacity];
+        sorted = new ScoreJournal.Entry[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Add e to the board if it makes it, pushing off the weakest score if
+     * the board is full. Returns false if it doesn't make it.
+     */
+    public boolean offer(ScoreJournal.Entry e) {
+        if (size < heap.length) {
+            heap[size] = e;
+            up(size++);
+        } else if (size > 0 && outranks(e, heap[0])) {
+            heap[0] = e;
+            down(0);
+        } else {
+            return false;
+        }
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Return the ith best score.
+     */
+    public ScoreJournal.Entry get(int i) {
+        if (dirty) {
+            sort();
+        }
+        return sorted[i];
+    }
+
+    /* Return true if a ranks above b. */
+    static boolean outranks(ScoreJournal.Entry a, ScoreJournal.Entry b) {
+        if (a.score != b.score) {
+            return a.score > b.score;
+        }
+        if (a.special != b.special) {
+            return a.special;
+        }
+        return a.sequence < b.sequence;
+    }
+
+    private void sort() {
+        System.arraycopy(heap, 0, sorted, 0, size);
+        Arrays.sort(sorted, 0, size, RANK);
+        dirty = false;
+    }
+
+    private void up(int i) {
+        ScoreJournal.Entry e = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!outranks(heap[parent], e)) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = e;
+    }
+
+    private void down(int i) {
+        ScoreJournal.Entry e = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && outranks(heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!outranks(e, heap[child])) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = e;
+    }
+}
@@ -0,0 +1,70 @@
+package com.shade.score;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The result of a request the ScoreClient is working on.
+ *
+ * States poll isDone from update and pick the value up with get once it is;
+ * neither call ever waits on the network. If the request failed get returns
+ * the fallback it was made with.
+ */
+public class Pending<T> {
+
+    private Future<T> future;
+    private T fallback;
+
+    Pending(Future<T> future, T fallback) {
+        this.future = future;
+        this.fallback = fallback;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Return the result, the fallback if the request failed or null if it
+     * hasn't finished yet.
+     */
+    public T get() {
+        if (!future.isDone()) {
+            return null;
+        }
+        return result();
+    }
+
+    /**
+     * Wait up to the given number of milliseconds for the result. Don't call
+     * this from the game loop.
+     */
+    public T await(long millis) {
+        try {
+            future.get(millis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // fall through to the fallback
+        }
+        return result();
+    }
+
+    public void cancel() {
+        future.cancel(true);
+    }
+
+    private T result() {
+        try {
+            T value = future.get();
+            return (value == null) ? fallback : value;
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+}
@@ -18,6 +18,9 @@ import com.shade.util.CsvReader;
  */
 public class RemoteHighScoreReader implements HighScoreReader {
 
+    private static final int CONNECT_TIMEOUT = 1000;
+    private static final int READ_TIMEOUT = 2000;
+
     private String base;
 
     public RemoteHighScoreReader(String path) {
@@ -33,7 +36,8 @@ public class RemoteHighScoreReader implements HighScoreReader {
 
             URL url = new URL(target);
             URLConnection c = url.openConnection();
-            c.setConnectTimeout(1000);
+            c.setConnectTimeout(CONNECT_TIMEOUT);
+            c.setReadTimeout(READ_TIMEOUT);
             InputStreamReader i = new InputStreamReader(c.getInputStream());
 
             CsvReader reader = new CsvReader(i);
@@ -9,6 +9,9 @@ import java.net.URLEncoder;
 
 public class RemoteHighScoreWriter implements HighScoreWriter {
 
+    private static final int CONNECT_TIMEOUT = 2000;
+    private static final int READ_TIMEOUT = 2000;
+
     private String base;
 
     public RemoteHighScoreWriter(String path) {
@@ -28,7 +31,8 @@ public class RemoteHighScoreWriter implements HighScoreWriter {
             content += "&special=" + special;
             URL url = new URL(base);
             URLConnection c = url.openConnection();
-            c.setConnectTimeout(2000);
+            c.setConnectTimeout(CONNECT_TIMEOUT);
+            c.setReadTimeout(READ_TIMEOUT);
             c.setDoOutput(true);
             OutputStreamWriter o = new OutputStreamWriter(c.getOutputStream());
             // write the content
@@ -0,0 +1,90 @@
+package com.shade.score;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Talks to the high score server off the render thread.
+ *
+ * Every request is queued on one worker thread and handed back as a Pending
+ * result for the caller to poll, so a slow or missing server never holds up
+ * a frame. Requests run in the order they were made, which means a read
+ * queued after a write sees the score that was written.
+ *
+ * The server defaults to the game's site; point it elsewhere, say at a
+ * server on localhost, with -Dshade.scores=http://host/path/.
+ */
+public class ScoreClient {
+
+    private static final String SERVER = "http://anotherearlymorning.com/games/shade2/";
+    private static final int TRIES = 3;
+
+    private ExecutorService worker;
+    private HighScoreReader reader;
+    private HighScoreWriter writer;
+
+    public ScoreClient() {
+        this(new FailSafeHighScoreReader(), new FailSafeHighScoreWriter());
+    }
+
+    public ScoreClient(HighScoreReader reader, HighScoreWriter writer) {
+        this.reader = reader;
+        this.writer = writer;
+        worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "score-client");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Return the URL of the given page on the score server.
+     */
+    public static String endpoint(String page) {
+        return System.getProperty("shade.scores", SERVER) + page;
+    }
+
+    /**
+     * Fetch the top scores for a level; an empty local list if that fails.
+     */
+    public Pending<Scores> read(final int level, final int limit) {
+        Callable<Scores> task = new Callable<Scores>() {
+            public Scores call() {
+                String[][] rows = reader.getScores(level, limit);
+                boolean local = (reader instanceof FailSafeHighScoreReader)
+                        && ((FailSafeHighScoreReader) reader).isLocal();
+                return new Scores(rows, local || rows == null);
+            }
+        };
+        return new Pending<Scores>(worker.submit(task), new Scores(null, true));
+    }
+
+    /**
+     * Post a score, trying a few times before giving up.
+     */
+    public Pending<Boolean> write(final String name, final int score,
+            final int level, final boolean special) {
+        Callable<Boolean> task = new Callable<Boolean>() {
+            public Boolean call() {
+                for (int i = 0; i < TRIES; i++) {
+                    if (writer.write(name, score, level, special)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        return new Pending<Boolean>(worker.submit(task), false);
+    }
+
+    /**
+     * Drop anything still queued and stop the worker.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,387 @@
+package com.shade.score;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.prefs.Preferences;
+
+import com.shade.levels.LevelManager;
+import com.shade.util.CsvReader;
+import com.shade.util.CsvWriter;
+
+/**
+ * Scores kept on this machine, in an append-only file.
+ *
+ * Each score is one CSV record: name, score, level, special and a key which
+ * identifies the score to the server so sending it twice does no harm.
+ * Scores go out to the server oldest first; once the server confirms some a
+ * record holding SENT and the key of the last of them is appended. A SENT
+ * record without a key covers everything before it. Markers are told apart
+ * from scores by their shape as well, since a player may well be called
+ * SENT. The best KEEP scores for
+ * each level are held in memory on a Leaderboard, so reading a board doesn't
+ * touch the file.
+ *
+ * When the file holds many more records than are still needed it is
+ * rewritten with just the scores on the boards and those not yet sent. The
+ * new file is written alongside and renamed over the old one so a crash
+ * part way through leaves the old file intact.
+ *
+ * Scores written before keys were added are given one when read, and the
+ * file is rewritten straight away so they keep it from then on.
+ *
+ * The first time it runs it moves any scores out of Preferences. The file
+ * lives in ~/.shade unless -Dshade.journal says otherwise.
+ */
+public class ScoreJournal {
+
+    /* How many scores each level's board holds. */
+    public static final int KEEP = 100;
+
+    private static final String SENT = "#sent";
+    private static final String SCORE_KEY = "scores";
+    private static final String EMPTY_STRING = "";
+    private static final char COMMA = ',';
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /* Rewrite once the file has this many records beyond what's needed. */
+    private static final int SLACK = 256;
+
+    private static final int NAME = 0;
+    private static final int SCORE = 1;
+    private static final int LEVEL = 2;
+    private static final int SPECIAL = 3;
+    private static final int KEY = 4;
+
+    private static ScoreJournal journal;
+
+    private File file;
+    private HashMap<Integer, Leaderboard> boards;
+    private ArrayList<Entry> unsent;
+    private int records;
+    private long sequence;
+
+    /**
+     * Return the game's journal, opening it the first time.
+     */
+    public static synchronized ScoreJournal get() {
+        if (journal == null) {
+            journal = new ScoreJournal(new File(System.getProperty(
+                    "shade.journal", System.getProperty("user.home")
+                            + "/.shade/scores.csv")));
+        }
+        return journal;
+    }
+
+    public ScoreJournal(File file) {
+        this.file = file;
+        boards = new HashMap<Integer, Leaderboard>();
+        unsent = new ArrayList<Entry>();
+        try {
+            if (file.exists()) {
+                load();
+                tidy();
+            } else {
+                migrate();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Record a score which hasn't been sent to the server.
+     */
+    public synchronized boolean append(String name, int score, int level,
+            boolean special) {
+        Entry e = new Entry(name, score, level, special);
+        try {
+            write(encode(e.record()), true);
+        } catch (IOException x) {
+            x.printStackTrace();
+            return false;
+        }
+        records++;
+        index(e);
+        unsent.add(e);
+        tidy();
+        return true;
+    }
+
+    /**
+     * Return up to limit of a level's best scores, highest first, as name,
+     * score and special. Returns the whole board if limit is zero.
+     */
+    public synchronized String[][] top(int level, int limit) {
+        Leaderboard board = boards.get(level);
+        int size = (board == null) ? 0 : board.size();
+        if (limit > 0 && limit < size) {
+            size = limit;
+        }
+        String[][] rows = new String[size][];
+        for (int i = 0; i < size; i++) {
+            Entry e = board.get(i);
+            rows[i] = new String[] { e.name, EMPTY_STRING + e.score,
+                    e.special ? "1" : "0" };
+        }
+        return rows;
+    }
+
+    /**
+     * Fill chunk with the oldest records which haven't been sent: at least
+     * one if there are any, then as many more as fit in max records and
+     * roughly bytes of CSV.
+     */
+    public synchronized void pending(int max, int bytes, List<String[]> chunk) {
+        chunk.clear();
+        int size = 0;
+        for (Entry e : unsent) {
+            String[] record = e.record();
+            size += encode(record).length();
+            if (chunk.size() == max || (size > bytes && !chunk.isEmpty())) {
+                break;
+            }
+            chunk.add(record);
+        }
+    }
+
+    /**
+     * Note that the server has the unsent record with the given key and
+     * every one before it.
+     */
+    public synchronized void acknowledge(String key) {
+        int last = find(key);
+        if (last < 0) {
+            return;
+        }
+        try {
+            write(encode(new String[] { SENT, key }), true);
+        } catch (IOException e) {
+            // it'll be sent again, the key makes that harmless
+            e.printStackTrace();
+        }
+        records++;
+        sent(last);
+        tidy();
+    }
+
+    public synchronized int countPending() {
+        return unsent.size();
+    }
+
+    private int find(String key) {
+        for (int i = 0; i < unsent.size(); i++) {
+            if (unsent.get(i).key.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* Move the first through last unsent records to sent. */
+    private void sent(int last) {
+        for (int i = 0; i <= last; i++) {
+            unsent.get(i).sent = true;
+        }
+        unsent.subList(0, last + 1).clear();
+    }
+
+    /* Compact once enough of the file is no longer needed. */
+    private void tidy() {
+        if (records <= live() + SLACK) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /*
+     * Rewrite the file with just the records still needed: the scores on
+     * the boards, a marker and whatever hasn't been sent.
+     */
+    private void compact() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Leaderboard board : boards.values()) {
+            for (int i = 0; i < board.size(); i++) {
+                if (board.get(i).sent) {
+                    builder.append(encode(board.get(i).record()));
+                }
+            }
+        }
+        builder.append(encode(new String[] { SENT }));
+        for (Entry e : unsent) {
+            builder.append(encode(e.record()));
+        }
+        write(builder.toString(), false);
+        records = live() + 1;
+    }
+
+    /* Number of records compact would keep, less the marker. */
+    private int live() {
+        int n = unsent.size();
+        for (Leaderboard board : boards.values()) {
+            for (int i = 0; i < board.size(); i++) {
+                if (board.get(i).sent) {
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    private void load() throws IOException {
+        CsvReader reader = new CsvReader(new InputStreamReader(
+                new FileInputStream(file), UTF8));
+        boolean keyless = false;
+        try {
+            while (reader.readRecord()) {
+                records++;
+                if (marker(reader)) {
+                    int last = (reader.getColumnCount() > 1) ? find(reader
+                            .get(1)) : unsent.size() - 1;
+                    sent(last);
+                    continue;
+                }
+                Entry e = parse(reader);
+                if (e != null) {
+                    keyless |= reader.getColumnCount() <= KEY;
+                    index(e);
+                    unsent.add(e);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        if (keyless) {
+            compact();
+        }
+    }
+
+    /* A marker has SENT and at most a key; a score has more columns. */
+    private static boolean marker(CsvReader reader) throws IOException {
+        return reader.getColumnCount() <= 2 && reader.get(NAME).equals(SENT);
+    }
+
+    /*
+     * Move scores from where LocalHighScoreWriter used to keep them. None of
+     * them had been sent; that's why they were there.
+     */
+    private void migrate() throws IOException {
+        Preferences prefs = Preferences.systemNodeForPackage(getClass());
+        for (int i = 0; i < LevelManager.NUM_LEVELS; i++) {
+            String blob = prefs.get(SCORE_KEY + i, EMPTY_STRING);
+            CsvReader reader = new CsvReader(new StringReader(blob));
+            while (reader.readRecord()) {
+                Entry e = parse(reader);
+                if (e != null) {
+                    index(e);
+                    unsent.add(e);
+                }
+            }
+        }
+        compact();
+        for (int i = 0; i < LevelManager.NUM_LEVELS; i++) {
+            prefs.remove(SCORE_KEY + i);
+        }
+    }
+
+    private Entry parse(CsvReader reader) throws IOException {
+        if (reader.getColumnCount() <= SPECIAL) {
+            return null;
+        }
+        try {
+            Entry e = new Entry(reader.get(NAME), Integer.parseInt(reader
+                    .get(SCORE)), Integer.parseInt(reader.get(LEVEL)), reader
+                    .get(SPECIAL).equals("1"));
+            if (reader.getColumnCount() > KEY) {
+                e.key = reader.get(KEY);
+            }
+            return e;
+        } catch (NumberFormatException x) {
+            return null;
+        }
+    }
+
+    /* Put e on its level's board if it makes it. */
+    private void index(Entry e) {
+        Leaderboard board = boards.get(e.level);
+        if (board == null) {
+            board = new Leaderboard(KEEP);
+            boards.put(e.level, board);
+        }
+        e.sequence = sequence++;
+        board.offer(e);
+    }
+
+    /* One CSV record, with its line break. */
+    static String encode(String[] record) {
+        StringWriter s = new StringWriter();
+        CsvWriter writer = new CsvWriter(s, COMMA);
+        try {
+            writer.writeRecord(record);
+        } catch (IOException e) {
+            // can't happen writing to a string
+        }
+        writer.close();
+        return s.toString();
+    }
+
+    /*
+     * Append to the file, or replace it by writing a copy and renaming it
+     * over, syncing before returning either way.
+     */
+    private void write(String text, boolean append) throws IOException {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        File target = append ? file : new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(target, append);
+        try {
+            out.write(text.getBytes(UTF8));
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        // renaming over an existing file fails on some platforms
+        if (!append && !target.renameTo(file)
+                && !(file.delete() && target.renameTo(file))) {
+            throw new IOException("Couldn't replace " + file);
+        }
+    }
+
+    /*
+     * One score, parsed once. Sequence orders scores by when they were made,
+     * for breaking ties.
+     */
+    static class Entry {
+
+        public String name, key;
+        public int score, level;
+        public long sequence;
+        public boolean special;
+        public boolean sent;
+
+        public Entry(String name, int score, int level, boolean special) {
+            this.name = name;
+            this.score = score;
+            this.level = level;
+            this.special = special;
+            key = UUID.randomUUID().toString();
+        }
+
+        public String[] record() {
+            return new String[] { name, EMPTY_STRING + score,
+                    EMPTY_STRING + level, special ? "1" : "0", key };
+        }
+    }
+}
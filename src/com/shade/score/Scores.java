@@ -0,0 +1,29 @@
+package com.shade.score;
+
+/**
+ * A page of high scores and where they came from.
+ */
+public class Scores {
+
+    private static final String[][] NONE = new String[0][0];
+
+    private String[][] rows;
+    private boolean local;
+
+    public Scores(String[][] rows, boolean local) {
+        this.rows = (rows == null) ? NONE : rows;
+        this.local = local;
+    }
+
+    /**
+     * Return each score as name, score and whether it cleared the game.
+     */
+    public String[][] getRows() {
+        return rows;
+    }
+
+    /** Return true if the server couldn't be reached. */
+    public boolean isLocal() {
+        return local;
+    }
+}
@@ -0,0 +1,176 @@
+package com.shade.score;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Sends scores the journal is holding to the server in the background.
+ *
+ * Scores go out oldest first in chunks of at most CHUNK_RECORDS records and
+ * about CHUNK_BYTES of CSV. Each chunk is acknowledged in the journal as
+ * soon as the server takes it, so an upload which is cut off part way
+ * resumes after the last chunk that made it.
+ *
+ * If the server can't be reached the queue waits before trying again,
+ * doubling the wait each time up to MAX_BACKOFF, and the same goes for any
+ * answer it doesn't understand. If it says a chunk holds a malformed record
+ * the chunk is halved until the record is found; that one is dropped after
+ * being turned down REJECTS times so it can't hold up the rest.
+ */
+public class UploadQueue implements Runnable {
+
+    public static final int CHUNK_RECORDS = 50;
+    public static final int CHUNK_BYTES = 8192;
+
+    private static final long MIN_BACKOFF = 1000;
+    private static final long MAX_BACKOFF = 5 * 60 * 1000;
+    private static final int REJECTS = 3;
+
+    private static UploadQueue queue;
+
+    private ScoreJournal journal;
+    private BatchWriter writer;
+    private Random random;
+    private Thread thread;
+
+    private ArrayList<String[]> chunk;
+    private int limit, rejects;
+    private long backoff, retryAt;
+    private int pokes;
+
+    /**
+     * Return the game's queue, starting it the first time.
+     */
+    public static synchronized UploadQueue get() {
+        if (queue == null) {
+            queue = new UploadQueue(ScoreJournal.get(), new BatchWriter());
+            queue.start();
+        }
+        return queue;
+    }
+
+    public UploadQueue(ScoreJournal journal, BatchWriter writer) {
+        this.journal = journal;
+        this.writer = writer;
+        random = new Random();
+        chunk = new ArrayList<String[]>();
+        limit = CHUNK_RECORDS;
+        pokes = 1;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        thread = new Thread(this, "score-upload");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        thread = null;
+        notifyAll();
+    }
+
+    /**
+     * Let the queue know there may be something new to send. Doesn't cut
+     * short a wait after a failure.
+     */
+    public synchronized void poke() {
+        pokes++;
+        notifyAll();
+    }
+
+    /**
+     * Let the queue know the server is up, so it should send right away.
+     */
+    public synchronized void reset() {
+        backoff = 0;
+        retryAt = 0;
+        poke();
+    }
+
+    public void run() {
+        while (true) {
+            int seen;
+            synchronized (this) {
+                try {
+                    while (Thread.currentThread() == thread && !ready()) {
+                        long now = System.currentTimeMillis();
+                        wait((pokes > 0 && retryAt > now) ? retryAt - now : 0);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (Thread.currentThread() != thread) {
+                    return;
+                }
+                seen = pokes;
+            }
+            boolean drained = drain();
+            synchronized (this) {
+                // anything poked while draining gets another pass
+                if (drained) {
+                    pokes -= seen;
+                }
+            }
+        }
+    }
+
+    private boolean ready() {
+        return pokes > 0 && System.currentTimeMillis() >= retryAt;
+    }
+
+    /*
+     * Send chunks until there's nothing left, returning false if it had to
+     * stop and wait first.
+     */
+    private boolean drain() {
+        while (true) {
+            journal.pending(limit, CHUNK_BYTES, chunk);
+            if (chunk.isEmpty()) {
+                return true;
+            }
+            // keys come last in each record
+            String[] tail = chunk.get(chunk.size() - 1);
+            String last = tail[tail.length - 1];
+            switch (writer.write(chunk)) {
+            case BatchWriter.SENT:
+                journal.acknowledge(last);
+                limit = CHUNK_RECORDS;
+                rejects = 0;
+                synchronized (this) {
+                    backoff = 0;
+                }
+                break;
+            case BatchWriter.REJECTED:
+                if (chunk.size() > 1) {
+                    limit = chunk.size() / 2;
+                    break;
+                }
+                if (++rejects >= REJECTS) {
+                    System.err.println("Dropping score the server won't take: "
+                            + ScoreJournal.encode(chunk.get(0)).trim());
+                    journal.acknowledge(last);
+                    limit = CHUNK_RECORDS;
+                    rejects = 0;
+                    break;
+                }
+                delay();
+                return false;
+            default:
+                delay();
+                return false;
+            }
+        }
+    }
+
+    private synchronized void delay() {
+        backoff = (backoff == 0) ? MIN_BACKOFF : Math.min(backoff * 2,
+                MAX_BACKOFF);
+        // spread retries out so players don't all come back at once
+        retryAt = System.currentTimeMillis() + backoff
+                + (long) (random.nextFloat() * backoff / 4);
+    }
+}
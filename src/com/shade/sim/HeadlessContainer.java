@@ -0,0 +1,84 @@
+package com.shade.sim;
+
+import org.lwjgl.input.Cursor;
+import org.newdawn.slick.Game;
+import org.newdawn.slick.GameContainer;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.Input;
+import org.newdawn.slick.opengl.ImageData;
+
+/**
+ * A game container with no window, no OpenGL context and no game loop.
+ *
+ * Whoever creates it is responsible for calling update on the game.
+ */
+public class HeadlessContainer extends GameContainer {
+
+    public HeadlessContainer(Game game, int width, int height, Input input) {
+        super(game);
+        this.width = width;
+        this.height = height;
+        this.input = input;
+    }
+
+    @Override
+    public long getTime() {
+        return System.nanoTime() / 1000000;
+    }
+
+    @Override
+    public int getScreenWidth() {
+        return width;
+    }
+
+    @Override
+    public int getScreenHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean hasFocus() {
+        return true;
+    }
+
+    @Override
+    public void setIcon(String ref) {
+        // no window
+    }
+
+    @Override
+    public void setIcons(String[] refs) {
+        // no window
+    }
+
+    @Override
+    public void setMouseCursor(String ref, int x, int y) {
+        // no window
+    }
+
+    @Override
+    public void setMouseCursor(ImageData data, int x, int y) {
+        // no window
+    }
+
+    @Override
+    public void setMouseCursor(Image image, int x, int y) {
+        // no window
+    }
+
+    @Override
+    public void setMouseCursor(Cursor cursor, int x, int y) {
+        // no window
+    }
+
+    @Override
+    public void setDefaultMouseCursor() {
+        // no window
+    }
+
+    @Override
+    public void setMouseGrabbed(boolean grabbed) {
+        // no window
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.shade.sim;
+
+/**
+ * Feeds key presses to a simulated game.
+ *
+ * Sources are polled once at the start of every tick, before the game is
+ * updated, and can then be asked which keys are held down for that tick.
+ */
+public interface InputSource {
+
+    /**
+     * Called once per tick before anything is updated.
+     *
+     * @param tick
+     *            Number of ticks simulated so far.
+     */
+    public void poll(long tick);
+
+    /**
+     * @param key
+     *            One of the Input.KEY_* constants.
+     * @return true if the key is held down during the current tick.
+     */
+    public boolean isKeyDown(int key);
+
+}
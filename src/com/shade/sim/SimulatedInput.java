@@ -0,0 +1,55 @@
+package com.shade.sim;
+
+import org.newdawn.slick.Input;
+
+/**
+ * Slick input which answers from an InputSource instead of the keyboard.
+ *
+ * A key counts as pressed on the first tick it is held down.
+ */
+public class SimulatedInput extends Input {
+
+    private static final int KEYS = 256;
+
+    private InputSource source;
+    private boolean[] down, pressed;
+
+    public SimulatedInput(int height, InputSource source) {
+        super(height);
+        this.source = source;
+        down = new boolean[KEYS];
+        pressed = new boolean[KEYS];
+    }
+
+    /**
+     * Advance to the given tick, asking the source which keys are down.
+     */
+    public void step(long tick) {
+        source.poll(tick);
+        for (int k = 0; k < KEYS; k++) {
+            boolean d = source.isKeyDown(k);
+            pressed[k] = d && !down[k];
+            down[k] = d;
+        }
+    }
+
+    @Override
+    public boolean isKeyDown(int key) {
+        return key >= 0 && key < KEYS && down[key];
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        if (key < 0 || key >= KEYS || !pressed[key]) {
+            return false;
+        }
+        pressed[key] = false;
+        return true;
+    }
+
+    @Override
+    public void poll(int width, int height) {
+        // nothing to read from; see step
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.shade.sim;
+
+import org.newdawn.slick.GameContainer;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.state.StateBasedGame;
+
+import com.shade.controls.DayPhaseTimer;
+import com.shade.controls.GameSlice;
+import com.shade.levels.Model;
+import com.shade.levels.Shell;
+import com.shade.lighting.GlobalLight;
+import com.shade.lighting.LightMask;
+import com.shade.states.MasterState;
+import com.shade.util.Profiler;
+import com.shade.util.ResourceManager;
+
+/**
+ * Plays a level without a display.
+ *
+ * The level is stepped with a fixed delta so runs are repeatable and as fast
+ * as the CPU allows. Luminosity comes from the CPU shadow map rather than the
+ * framebuffer and images are loaded headless, so no OpenGL context is needed.
+ * Key presses come from an InputSource. The level's random numbers come from
+ * a fixed seed, so the same seed and input play out the same way each run.
+ * The run counts the ticks the player spends in the light; a run of a day or
+ * more in which the player is never lit means the lighting isn't reaching
+ * the entities and main fails.
+ *
+ * Run with: ant simulate -Dlevel=levels/level-1.xml -Ddays=10 -Dseed=1
+ */
+public class Simulation {
+
+    /* Same as the game running at its target of 60 frames per second. */
+    public static final int FIXED_DELTA = 16;
+
+    public static final long DEFAULT_SEED = 1;
+
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    private StateBasedGame game;
+    private GameContainer container;
+    private SimulatedInput input;
+    private DayPhaseTimer timer;
+    private GameSlice slice;
+    private Model model;
+    private long ticks, lit;
+
+    public Simulation(String level, InputSource source) throws SlickException {
+        this(level, source, DEFAULT_SEED);
+    }
+
+    public Simulation(String level, InputSource source, long seed)
+            throws SlickException {
+        ResourceManager.setHeadless(true);
+        game = new StateBasedGame("Shade (headless)") {
+
+            @Override
+            public void initStatesList(GameContainer container) {
+                // nothing to render
+            }
+        };
+        input = new SimulatedInput(HEIGHT, source);
+        container = new HeadlessContainer(game, WIDTH, HEIGHT, input);
+        game.init(container);
+
+        timer = new DayPhaseTimer(MasterState.SECONDS_PER_DAY);
+        GlobalLight light = new GlobalLight(12, (float) (4 * Math.PI / 3),
+                MasterState.SECONDS_PER_DAY, timer);
+        LightMask view = new LightMask(5, timer);
+        view.setSampling(LightMask.Sampling.ANALYTIC);
+        slice = new GameSlice(view, light, timer);
+
+        model = new Shell(level, seed);
+        slice.load(model);
+    }
+
+    /**
+     * Advance the simulation by a single fixed tick.
+     */
+    public void step() throws SlickException {
+        input.step(ticks);
+        slice.update(game, FIXED_DELTA);
+        ticks++;
+        if (model.getPlayer().getLuminosity() > 0) {
+            lit++;
+        }
+    }
+
+    public void run(long n) throws SlickException {
+        for (long i = 0; i < n; i++) {
+            step();
+        }
+    }
+
+    public void runDays(int days) throws SlickException {
+        run((long) days * MasterState.SECONDS_PER_DAY / FIXED_DELTA);
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Number of ticks at the end of which the player was in the light.
+     */
+    public long getLitTicks() {
+        return lit;
+    }
+
+    public Model getModel() {
+        return model;
+    }
+
+    public GameSlice getSlice() {
+        return slice;
+    }
+
+    public StateBasedGame getGame() {
+        return game;
+    }
+
+    /**
+     * Input which never presses anything; the player stands still.
+     */
+    public static class Idle implements InputSource {
+
+        public void poll(long tick) {
+            // nothing to do
+        }
+
+        public boolean isKeyDown(int key) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) {
+        String level = (args.length > 0) ? args[0] : "levels/level-1.xml";
+        int days = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        Profiler.dumpOnExit("profile.csv");
+        try {
+            long start = System.currentTimeMillis();
+            Simulation s = new Simulation(level, new Idle(), seed);
+            long loaded = System.currentTimeMillis();
+            s.runDays(days);
+            long done = System.currentTimeMillis();
+            System.out.println("level=" + level + " days=" + days + " seed="
+                    + seed + " ticks="
+                    + s.getTicks() + " entities=" + s.getModel().toArray().length
+                    + " load_ms=" + (loaded - start) + " run_ms="
+                    + (done - loaded) + " shadow_rebuilds="
+                    + s.getSlice().getShadows().rebuilds() + " lit_ticks="
+                    + s.getLitTicks());
+            if (days > 0 && s.getLitTicks() == 0) {
+                System.err.println("The player was never lit");
+                System.exit(1);
+            }
+        } catch (SlickException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+}
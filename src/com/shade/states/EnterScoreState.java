@@ -14,8 +14,6 @@ import com.shade.controls.Button;
 import com.shade.controls.ClickListener;
 import com.shade.controls.SlickButton;
 import com.shade.util.ResourceManager;
-import com.shade.score.FailSafeHighScoreWriter;
-import com.shade.score.HighScoreWriter;
 
 public class EnterScoreState extends BasicGameState {
 
@@ -34,7 +32,6 @@ public class EnterScoreState extends BasicGameState {
     private int timer;
     private TextField input;
     private String message;
-    private HighScoreWriter writer;
     private boolean completed;
 
     // private Music badEnding, goodEnding;
@@ -47,7 +44,6 @@ public class EnterScoreState extends BasicGameState {
         resource.register("playagain-down", "states/enter/playagain-down.png");
         resource.register("losers-wreath", "states/enter/losers-wreath.png");
         resource.register("winners-wreath", "states/enter/winners-wreath.png");
-        writer = new FailSafeHighScoreWriter();
         // badEnding = new Music("states/enter/loser.ogg", true);
         // goodEnding = new Music("states/enter/winner.ogg", true);
     }
@@ -146,13 +142,7 @@ public class EnterScoreState extends BasicGameState {
                 if (name.equals("")) {
                     name = "Anon";
                 }
-                int numTries = 3;
-                boolean written = false;
-                while (!written && numTries > 0) {
-                    written = writer.write(name, master.scorecard
-                            .getScore(), 0, true);
-                    numTries--;
-                }
+                master.highscores.write(name, master.scorecard.getScore(), 0, true);
                 input.setAcceptingInput(false);
                 completed = true;
                 message = "Way to go " + input.getText() + "!! ... "
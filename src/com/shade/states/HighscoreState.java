@@ -15,20 +15,22 @@ import com.shade.controls.FadeInImage;
 import com.shade.controls.FadeInText;
 import com.shade.controls.SlickButton;
 import com.shade.util.ResourceManager;
-import com.shade.score.FailSafeHighScoreReader;
+import com.shade.score.Pending;
+import com.shade.score.Scores;
 
 public class HighscoreState extends BasicGameState {
     
     public static final int ID = 4;
 
     private static final String FEEDBACK_URL = "http://anotherearlymorning.com/shade/feedback";
+    private static final String LOADING_MESSAGE = "Loading scores...";
     private static final String NO_INTERNET_MESSAGE = "Shade supports global high scores. Please connect to the internet to take advantage of this exciting feature.";
 
     private MasterState master;
     private ResourceManager resource;
     private SlickButton play, feedback, back;
     private int timer;
-    private FailSafeHighScoreReader reader;
+    private Pending<Scores> pending;
     private ArrayList<FadeInText> scores;
     private ArrayList<FadeInImage> crowns;
 
@@ -45,7 +47,6 @@ public class HighscoreState extends BasicGameState {
         
         scores = new ArrayList<FadeInText>();
         crowns = new ArrayList<FadeInImage>();
-        reader = new FailSafeHighScoreReader();
     }
 
     @Override
@@ -87,6 +88,9 @@ public class HighscoreState extends BasicGameState {
         for (FadeInImage i : crowns) {
             i.render(game, g);
         }
+        if (pending != null) {
+            drawCentered(container, LOADING_MESSAGE, 300);
+        }
         if (noInternet) {
             drawCentered(container, NO_INTERNET_MESSAGE, 550);
         }
@@ -108,6 +112,10 @@ public class HighscoreState extends BasicGameState {
             back.update(game, delta);
         }
         master.dimmer.update(game, delta);
+        if (pending != null && pending.isDone()) {
+            showScores(pending.get());
+            pending = null;
+        }
         for (FadeInText t : scores) {
             t.update(game, delta);
         }
@@ -159,11 +167,19 @@ public class HighscoreState extends BasicGameState {
         });
     }
     
-    private void initScores() throws SlickException {
+    private void initScores() {
         scores.clear();
         crowns.clear();
-        String[][] scoress = reader.getScores(0, 10);
-        noInternet = reader.isLocal();
+        noInternet = false;
+        if (pending != null) {
+            pending.cancel();
+        }
+        pending = master.highscores.read(0, 10);
+    }
+
+    private void showScores(Scores result) {
+        String[][] scoress = result.getRows();
+        noInternet = result.isLocal();
         int x = 50;
         int y = 100;
         int n = 0;
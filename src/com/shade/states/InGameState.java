@@ -17,6 +17,7 @@ import com.shade.controls.CounterControl;
 import com.shade.controls.MeterControl;
 import com.shade.controls.SerialStats;
 import com.shade.controls.SlickButton;
+import com.shade.controls.StatStore;
 import com.shade.controls.StatsControl;
 import com.shade.controls.DayPhaseTimer.DayLightStatus;
 import com.shade.levels.LevelManager;
@@ -98,6 +99,23 @@ public class InGameState extends BasicGameState {
         resetControls();
     }
 
+    /**
+     * Start reading the levels the player may go to from the recap, this one
+     * again and the next, in the background.
+     */
+    public void prefetchLevels() {
+        levels.prefetch(currentLevel + 1);
+        levels.prefetch(currentLevel);
+    }
+
+    /**
+     * Build the next level ahead of time once it has been read; call every
+     * frame until it returns true.
+     */
+    public boolean prepareNextLevel() {
+        return levels.prepare(currentLevel + 1);
+    }
+
     private void initLevel() {
         if (currentLevel < levels.size()) {
             level = levels.get(currentLevel);
@@ -147,10 +165,6 @@ public class InGameState extends BasicGameState {
         recordDamage();
         recordMushroomsCollected();
         safeExit(game, id);
-        if (parWasMet()) {
-            String stat = "level-" + currentLevel + "-clear";
-            SerialStats.write(stat, 1);
-        }
     }
 
     private void recordDamage() {
@@ -163,11 +177,21 @@ public class InGameState extends BasicGameState {
         stats.replace("level-golden", counter.goldMushrooms);
         stats.replace("level-mushrooms", counter.totalCount);
         
-        SerialStats.add("golden-mushrooms-collected", counter.goldMushrooms);
-        SerialStats.add("mushrooms-collected", counter.totalCount);
-        if (SerialStats.read("level-mushrooms-collected") < counter.totalCount) {
-            SerialStats.write("level-mushrooms-collected", counter.totalCount);
-        }
+        final boolean clear = parWasMet();
+        SerialStats.update(new StatStore.Update() {
+
+            public void apply(StatStore store) {
+                store.add("golden-mushrooms-collected", counter.goldMushrooms);
+                store.add("mushrooms-collected", counter.totalCount);
+                if (store.getInt("level-mushrooms-collected", 0) < counter.totalCount) {
+                    store.putInt("level-mushrooms-collected", counter.totalCount);
+                }
+                if (clear) {
+                    store.putInt("level-" + currentLevel + "-clear", 1);
+                }
+            }
+
+        });
     }
 
     private void recordMileage() {
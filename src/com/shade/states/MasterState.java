@@ -20,6 +20,7 @@ import com.shade.controls.GameSlice;
 import com.shade.controls.SerialStats;
 import com.shade.lighting.GlobalLight;
 import com.shade.lighting.LightMask;
+import com.shade.score.ScoreClient;
 import com.shade.util.ResourceManager;
 import com.shade.states.util.Dimmer;
 
@@ -39,6 +40,7 @@ public class MasterState extends BasicGameState {
     public ScoreControl scorecard;
     public Dimmer dimmer;
     public DayPhaseTimer timer;
+    public ScoreClient highscores;
 
     public TrueTypeFont jekyllXSmall, jekyllSmall, jekyllMedium, jekyllLarge;
     public TrueTypeFont daisySmall, daisyMedium, daisyLarge, daisyXLarge;
@@ -52,6 +54,12 @@ public class MasterState extends BasicGameState {
 
     public void init(GameContainer container, StateBasedGame game)
             throws SlickException {
+        // creature and particle sprites share one texture
+        ResourceManager.pack("entities/mole/sniff.png",
+                "entities/mole/sleep.png", "entities/mole/z.png",
+                "entities/mole/move.png", "entities/bird/fly.png",
+                "entities/bird/attack.png", "entities/sparkle/spark.png",
+                "entities/sparkle/puff.png");
         resource = new ResourceManager();
         // register resources
         resource.register("header", "states/common/header.png");
@@ -81,6 +89,7 @@ public class MasterState extends BasicGameState {
         control = new GameSlice(new LightMask(5, timer), createLight(), timer);
         dimmer = new Dimmer(.6f);
         dimmer.run();
+        highscores = new ScoreClient();
 
         // register states
         game.addState(new TitleState(this));
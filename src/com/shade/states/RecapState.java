@@ -25,9 +25,8 @@ import com.shade.controls.SlickButton;
 import com.shade.controls.StatMeter;
 import com.shade.controls.TwoToneButton;
 import com.shade.levels.LevelManager;
-import com.shade.score.FailSafeHighScoreReader;
-import com.shade.score.FailSafeHighScoreWriter;
-import com.shade.score.HighScoreWriter;
+import com.shade.score.Pending;
+import com.shade.score.Scores;
 import com.shade.util.ResourceManager;
 
 public class RecapState extends BasicGameState {
@@ -49,10 +48,8 @@ public class RecapState extends BasicGameState {
 
     private boolean completed;
     private String name;
-    private FailSafeHighScoreReader reader;
-    private HighScoreWriter writer;
 
-    private boolean par;
+    private boolean par, ready;
     private StateBasedGame game;
     private int index;
     private int timer, lockFlipper;
@@ -76,9 +73,6 @@ public class RecapState extends BasicGameState {
         resource.register("wreath", "states/recap/wreath.png");
         resource.register("unlocked", "states/recap/unlocked.png");
         statsIcons = new SpriteSheet("states/recap/icons.png", 40, 40);
-
-        reader = new FailSafeHighScoreReader();
-        writer = new FailSafeHighScoreWriter();
     }
 
     @Override
@@ -96,6 +90,7 @@ public class RecapState extends BasicGameState {
         this.game = game;
         timer = 0;
         lockFlipper = 0;
+        ready = false;
         index = 0;
         level = (InGameState) game.getState(InGameState.ID);
         par = level.parWasMet();
@@ -103,6 +98,7 @@ public class RecapState extends BasicGameState {
             master.dimmer.rewind();
         }
         message = (par) ? PASS_TEXT : FAIL_TEXT;
+        level.prefetchLevels();
         initButtons();
         initFlowButtons();
         initStats();
@@ -199,6 +195,9 @@ public class RecapState extends BasicGameState {
         input.update(game, delta);
         lockFlipper += delta;
         timer += delta;
+        if (par && !ready) {
+            ready = level.prepareNextLevel();
+        }
         if (timer > MasterState.STATE_TRANSITION_DELAY) {
             if (validNext()) {
                 nextLevel.update(game, delta);
@@ -391,17 +390,10 @@ public class RecapState extends BasicGameState {
                     if (name.equals("")) {
                         name = "Anon";
                     }
-                    int numTries = 3;
-                    boolean written = false;
-                    while (!written && numTries > 0) {
-                        written = writer.write(name, master.scorecard
-                                .getLevelScore(), level.getCurrentLevel(),
-                                false);
-                        writer.write(name, master.scorecard
-                                .getScore(), 0,
-                                true);
-                        numTries--;
-                    }
+                    master.highscores.write(name, master.scorecard
+                            .getLevelScore(), level.getCurrentLevel(), false);
+                    master.highscores.write(name, master.scorecard.getScore(), 0,
+                            true);
                     input.setAcceptingInput(false);
                     completed = true;
                     show(false);
@@ -423,6 +415,7 @@ public class RecapState extends BasicGameState {
         private boolean show;
         private ArrayList<FadeInText> scores;
         private ArrayList<FadeInImage> crowns;
+        private Pending<Scores> pending;
 
         public ScoreGizmo() {
             scores = new ArrayList<FadeInText>();
@@ -433,6 +426,9 @@ public class RecapState extends BasicGameState {
         public void render(StateBasedGame game, Graphics g) {
             if (show) {
                 master.daisyLarge.drawString(240, 175, "Top 5 Scores");
+                if (pending != null) {
+                    master.jekyllMedium.drawString(280, 210, "Loading...");
+                }
                 for (FadeInImage crown : crowns) {
                     crown.render(game, g);
                 }
@@ -453,6 +449,10 @@ public class RecapState extends BasicGameState {
         }
 
         public void update(StateBasedGame game, int delta) {
+            if (pending != null && pending.isDone()) {
+                showScores(pending.get());
+                pending = null;
+            }
             if (show) {
                 for (FadeInImage crown : crowns) {
                     crown.update(game, delta);
@@ -470,10 +470,20 @@ public class RecapState extends BasicGameState {
             }
         }
 
+        /**
+         * Ask for the level's scores; they're shown once they arrive.
+         */
         public void readScores() {
             scores.clear();
             crowns.clear();
-            String[][] scoress = reader.getScores(level.getCurrentLevel(), 5);
+            if (pending != null) {
+                pending.cancel();
+            }
+            pending = master.highscores.read(level.getCurrentLevel(), 5);
+        }
+
+        private void showScores(Scores result) {
+            String[][] scoress = result.getRows();
             int x = 240;
             int y = 210;
             int n = 0;
@@ -0,0 +1,120 @@
+package com.shade.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.newdawn.slick.Image;
+import org.newdawn.slick.opengl.Texture;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * An image which knows its size but never touches OpenGL.
+ *
+ * Used when running without a display. Only the dimensions are read from the
+ * file's header so sprite sheets can still be cut up into frames; drawing one
+ * of these is a mistake.
+ */
+class HeadlessImage extends Image {
+
+    public HeadlessImage(String path) {
+        int[] size = readSize(path);
+        ref = path;
+        width = size[0];
+        height = size[1];
+        texture = new NullTexture(path, width, height);
+        textureWidth = 1;
+        textureHeight = 1;
+        centerX = width / 2f;
+        centerY = height / 2f;
+        inited = true;
+    }
+
+    /* Width and height from a PNG's IHDR chunk, or 1x1 if it isn't one. */
+    private static int[] readSize(String path) {
+        int[] size = { 1, 1 };
+        InputStream in = null;
+        try {
+            in = ResourceLoader.getResourceAsStream(path);
+            DataInputStream data = new DataInputStream(in);
+            // signature (8) + chunk length (4) + "IHDR" (4)
+            data.skipBytes(16);
+            size[0] = data.readInt();
+            size[1] = data.readInt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        return size;
+    }
+
+    private static class NullTexture implements Texture {
+
+        private String ref;
+        private int width, height;
+
+        public NullTexture(String ref, int width, int height) {
+            this.ref = ref;
+            this.width = width;
+            this.height = height;
+        }
+
+        public boolean hasAlpha() {
+            return true;
+        }
+
+        public String getTextureRef() {
+            return ref;
+        }
+
+        public void bind() {
+            // nothing to bind
+        }
+
+        public int getImageHeight() {
+            return height;
+        }
+
+        public int getImageWidth() {
+            return width;
+        }
+
+        public float getHeight() {
+            return 1;
+        }
+
+        public float getWidth() {
+            return 1;
+        }
+
+        public int getTextureHeight() {
+            return height;
+        }
+
+        public int getTextureWidth() {
+            return width;
+        }
+
+        public void release() {
+            // nothing to release
+        }
+
+        public int getTextureID() {
+            return 0;
+        }
+
+        public byte[] getTextureData() {
+            return new byte[0];
+        }
+    }
+
+}
@@ -5,10 +5,10 @@ import org.newdawn.slick.geom.Vector2f;
 
 public class LevelUtil {
 
-    public static Vector2f randomPoint(GameContainer c) {
+    public static Vector2f randomPoint(GameContainer c, Rng random) {
         Vector2f p = new Vector2f();
-        p.x = (float) Math.random() * (c.getWidth() - 20) + 10;
-        p.y = (float) Math.random() * (c.getHeight() - 20) + 10;
+        p.x = random.nextFloat() * (c.getWidth() - 20) + 10;
+        p.y = random.nextFloat() * (c.getHeight() - 20) + 10;
         return p;
     }
 }
@@ -0,0 +1,239 @@
+package com.shade.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Graphics;
+
+/**
+ * Times how long each part of a frame takes.
+ *
+ * Wrap the code you want to measure like so:
+ *
+ * <pre>
+ * long start = Profiler.start();
+ * grid.update();
+ * Profiler.stop(Profiler.Scope.GRID, start);
+ * </pre>
+ *
+ * Each scope keeps its most recent samples in a ring buffer so the overlay
+ * can show rolling percentiles; the slowest sample ever seen is kept too so
+ * a single stutter isn't lost once it rolls out of the window. Nothing is
+ * recorded until the profiler is enabled, either with -Dshade.profile=true
+ * or by opening the overlay, and recording never allocates.
+ */
+public class Profiler {
+
+    /**
+     * The parts of a frame worth timing.
+     */
+    public enum Scope {
+        FRAME("frame"),
+        SLICE("slice update"),
+        LEVEL("level update"),
+        GRID("grid update"),
+        LIGHTS("render lights"),
+        ENTITIES("render entities"),
+        READBACK("readback"),
+        MUSHROOMS("mushrooms");
+
+        private String label;
+
+        private Scope(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /* About four seconds worth of frames at 60 fps. */
+    private static final int WINDOW = 256;
+    /* How often the overlay recomputes its percentiles. */
+    private static final int REFRESH = 500;
+    private static final Color BACKDROP = new Color(0, 0, 0, .6f);
+
+    private static final Scope[] SCOPES = Scope.values();
+    private static final long[][] samples = new long[SCOPES.length][WINDOW];
+    private static final int[] cursor = new int[SCOPES.length];
+    private static final long[] count = new long[SCOPES.length];
+    private static final long[] total = new long[SCOPES.length];
+    private static final long[] worst = new long[SCOPES.length];
+
+    private static final long[] sorted = new long[WINDOW];
+    private static final long[] p50 = new long[SCOPES.length];
+    private static final long[] p99 = new long[SCOPES.length];
+    private static long refreshed;
+
+    private static boolean enabled = Boolean.getBoolean("shade.profile");
+    private static boolean visible;
+
+    private Profiler() {
+        // static only
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Show or hide the overlay. Showing it starts recording.
+     */
+    public static void toggle() {
+        visible = !visible;
+        if (visible) {
+            enabled = true;
+        }
+    }
+
+    public static boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Return a start time to pass to {@link #stop}, or zero when disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void stop(Scope scope, long start) {
+        if (start == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        int s = scope.ordinal();
+        samples[s][cursor[s]] = elapsed;
+        cursor[s] = (cursor[s] + 1) % WINDOW;
+        count[s]++;
+        total[s] += elapsed;
+        if (elapsed > worst[s]) {
+            worst[s] = elapsed;
+        }
+    }
+
+    public static void reset() {
+        for (int s = 0; s < SCOPES.length; s++) {
+            cursor[s] = 0;
+            count[s] = 0;
+            total[s] = 0;
+            worst[s] = 0;
+            p50[s] = 0;
+            p99[s] = 0;
+        }
+    }
+
+    /**
+     * Median of the samples currently in the window, in nanoseconds.
+     */
+    public static long median(Scope scope) {
+        return percentile(scope.ordinal(), .5f);
+    }
+
+    /**
+     * 99th percentile of the samples currently in the window, in nanoseconds.
+     */
+    public static long tail(Scope scope) {
+        return percentile(scope.ordinal(), .99f);
+    }
+
+    public static void render(Graphics g) {
+        if (!visible) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - refreshed > REFRESH) {
+            for (int s = 0; s < SCOPES.length; s++) {
+                p50[s] = percentile(s, .5f);
+                p99[s] = percentile(s, .99f);
+            }
+            refreshed = now;
+        }
+        Color c = g.getColor();
+        int line = g.getFont().getLineHeight();
+        g.setColor(BACKDROP);
+        g.fillRect(5, 5, 310, line * (SCOPES.length + 1) + 10);
+        g.setColor(Color.white);
+        g.drawString("scope           p50 ms  p99 ms  max ms", 10, 10);
+        for (int s = 0; s < SCOPES.length; s++) {
+            String row = pad(SCOPES[s].label(), 16) + pad(millis(p50[s]), 8)
+                    + pad(millis(p99[s]), 8) + millis(worst[s]);
+            g.drawString(row, 10, 10 + line * (s + 1));
+        }
+        g.setColor(c);
+    }
+
+    /**
+     * Write a summary of every scope to a CSV file.
+     */
+    public static void dump(String path) throws IOException {
+        CsvWriter out = new CsvWriter(path);
+        try {
+            out.writeRecord(new String[] { "scope", "count", "mean_ms",
+                    "p50_ms", "p99_ms", "max_ms" });
+            for (int s = 0; s < SCOPES.length; s++) {
+                long mean = (count[s] == 0) ? 0 : total[s] / count[s];
+                out.writeRecord(new String[] { SCOPES[s].label(),
+                        String.valueOf(count[s]), millis(mean),
+                        millis(percentile(s, .5f)),
+                        millis(percentile(s, .99f)), millis(worst[s]) });
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Dump to the given file when the JVM exits, if the profiler was used.
+     */
+    public static void dumpOnExit(final String path) {
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+
+            @Override
+            public void run() {
+                if (!enabled) {
+                    return;
+                }
+                try {
+                    dump(path);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    private static long percentile(int s, float p) {
+        int n = (int) Math.min(count[s], WINDOW);
+        if (n == 0) {
+            return 0;
+        }
+        System.arraycopy(samples[s], 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        return sorted[Math.min(n - 1, (int) (p * n))];
+    }
+
+    private static String millis(long nanos) {
+        long hundredths = nanos / 10000;
+        String fraction = String.valueOf(hundredths % 100);
+        if (fraction.length() < 2) {
+            fraction = "0" + fraction;
+        }
+        return hundredths / 100 + "." + fraction;
+    }
+
+    private static String pad(String s, int width) {
+        StringBuilder b = new StringBuilder(s);
+        while (b.length() < width) {
+            b.append(' ');
+        }
+        return b.toString();
+    }
+
+}
@@ -2,22 +2,49 @@ package com.shade.util;
 
 import java.util.HashMap;
 
+import org.newdawn.slick.Graphics;
 import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
+import org.newdawn.slick.Sound;
+import org.newdawn.slick.SpriteSheet;
+import org.newdawn.slick.openal.SoundStore;
 
 /**
  * Manager the various assets so the rest of the app doesn't have to.
- * 
+ *
  * There are two goals here:
  *   1. Consolidate loading of resources in one place to avoid duplication.
  *   2. Provide mechanism to stream content on the fly instead of locking.
- * 
+ *
+ * Instances map friendly names to images for the states. Entities should use
+ * the static methods instead, which share a single copy of each image, sprite
+ * sheet and sound across the whole process. Shared copies are kept for as
+ * long as the game runs; every level uses much the same set.
+ *
+ * Small sprites can be packed into a single atlas texture with
+ * {@link #pack(String...)}. Images acquired afterwards are cut from the atlas
+ * so that drawing them doesn't require switching textures. A transparent
+ * gutter is left around each one so filtering at its edges doesn't pick up
+ * its neighbors.
+ *
+ * In headless mode images are never uploaded to the card; they only carry
+ * their dimensions so that the game can be simulated without a display.
+ *
  * @author Alexander Schearer <aschearer@gmail.com>
  */
 public class ResourceManager {
-    
+
+    private static final int ATLAS_SIZE = 1024;
+    /* Empty pixels left between images in the atlas. */
+    private static final int GUTTER = 2;
+
+    private static HashMap<String, Object> cache = new HashMap<String, Object>();
+    private static HashMap<String, Image> atlased = new HashMap<String, Image>();
+    private static Image atlas;
+    private static boolean headless;
+
     private HashMap<String, Image> resources;
-    
+
     public ResourceManager() {
         resources = new HashMap<String, Image>();
     }
@@ -26,11 +53,132 @@ public class ResourceManager {
         if (resources.containsKey(name)) {
             return false;
         }
-        resources.put(name, new Image(resource));
+        resources.put(name, image(resource));
         return true;
     }
-    
+
     public Image get(String resource) {
         return resources.get(resource);
     }
+
+    /**
+     * Stop loading textures and sounds. Call this before any entities are
+     * created.
+     */
+    public static void setHeadless(boolean h) {
+        headless = h;
+        if (headless) {
+            // keep Slick from opening OpenAL behind our back
+            SoundStore.get().disable();
+        }
+    }
+
+    public static boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Acquire the image at the given path, loading it if need be.
+     */
+    public static Image image(String path) throws SlickException {
+        Image i = (Image) cache.get(path);
+        if (i == null) {
+            i = load(path);
+            cache.put(path, i);
+        }
+        return i;
+    }
+
+    /**
+     * Acquire a sprite sheet cut into tiles of the given size.
+     */
+    public static SpriteSheet sheet(String path, int tw, int th)
+            throws SlickException {
+        String key = path + "#" + tw + "x" + th;
+        SpriteSheet s = (SpriteSheet) cache.get(key);
+        if (s == null) {
+            // tiles share the image's texture
+            s = new SpriteSheet(image(path), tw, th);
+            cache.put(key, s);
+        }
+        return s;
+    }
+
+    /**
+     * Acquire the sound at the given path; silent when running headless.
+     */
+    public static SoundEffect sound(String path) throws SlickException {
+        SoundEffect s = (SoundEffect) cache.get(path);
+        if (s == null) {
+            Sound sound = headless ? null : new Sound(path);
+            s = new SoundEffect(sound);
+            cache.put(path, s);
+        }
+        return s;
+    }
+
+    /**
+     * Pack the given images into one texture. Images which don't fit, or all
+     * of them if the card can't render offscreen, are loaded on their own.
+     *
+     * This should be called once, before any of the images are acquired.
+     */
+    public static void pack(String... paths) {
+        if (atlas != null || headless) {
+            return;
+        }
+        try {
+            atlas = new Image(ATLAS_SIZE, ATLAS_SIZE);
+            Graphics g = atlas.getGraphics();
+            /*
+             * Copy texels as they are; blending them in the usual way onto
+             * the empty atlas would square their alpha and darken their
+             * edges. Adding them to its zeroes comes to the same as a plain
+             * copy since images never overlap, and setting the mode through
+             * the atlas' graphics applies it wherever that draws.
+             */
+            g.setDrawMode(Graphics.MODE_ADD);
+            int x = 0, y = 0, shelf = 0;
+            for (String path : paths) {
+                if (atlased.containsKey(path)) {
+                    continue;
+                }
+                Image i = new Image(path);
+                int w = i.getWidth();
+                int h = i.getHeight();
+                if (x + w > ATLAS_SIZE) {
+                    x = 0;
+                    y += shelf + GUTTER;
+                    shelf = 0;
+                }
+                if (y + h > ATLAS_SIZE) {
+                    i.destroy();
+                    break;
+                }
+                g.drawImage(i, x, y);
+                atlased.put(path, atlas.getSubImage(x, y, w, h));
+                i.destroy();
+                x += w + GUTTER;
+                shelf = Math.max(shelf, h);
+            }
+            g.setDrawMode(Graphics.MODE_NORMAL);
+            g.flush();
+        } catch (SlickException e) {
+            // no offscreen rendering; images will be loaded individually
+            e.printStackTrace();
+            atlased.clear();
+            atlas = null;
+        }
+    }
+
+    private static Image load(String path) throws SlickException {
+        if (headless) {
+            return new HeadlessImage(path);
+        }
+        Image i = atlased.get(path);
+        if (i != null) {
+            return i;
+        }
+        return new Image(path);
+    }
 }
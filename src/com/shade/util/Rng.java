@@ -0,0 +1,73 @@
+package com.shade.util;
+
+/**
+ * A small, fast random number generator for gameplay.
+ *
+ * This is SplitMix64, the generator behind SplittableRandom: one long of
+ * state, a handful of arithmetic per number and no locking, unlike
+ * Math.random which every caller in the process shares. Two generators
+ * given the same seed produce the same numbers, which is what makes a
+ * seeded level replay the same way.
+ *
+ * Not thread safe; give each thread its own.
+ */
+public class Rng {
+
+    private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    public Rng(long seed) {
+        state = seed;
+    }
+
+    /**
+     * Return a generator seeded from a position, for things which need
+     * random numbers before they're in a level.
+     */
+    public static Rng at(float x, float y) {
+        return new Rng(mix(Float.floatToIntBits(x) * 31L
+                + Float.floatToIntBits(y)));
+    }
+
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long nextLong() {
+        state += GOLDEN;
+        return mix(state);
+    }
+
+    /**
+     * Return a new generator seeded from this one, which then goes its own
+     * way.
+     */
+    public Rng split() {
+        return new Rng(mix(nextLong()));
+    }
+
+    /** Return a number in [0, 1), like Math.random. */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /** Return a number in [0, 1). */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /** Return a number in [0, bound); bound must be positive. */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * Scramble a seed so that nearby seeds give unrelated sequences.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
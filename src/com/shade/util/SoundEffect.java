@@ -0,0 +1,48 @@
+package com.shade.util;
+
+import org.newdawn.slick.Sound;
+
+/**
+ * A sound which may be silent.
+ *
+ * Slick can't create a Sound without OpenAL, so when running headless the
+ * resource manager hands these out with nothing inside and every call is a
+ * no-op.
+ */
+public class SoundEffect {
+
+    private Sound sound;
+
+    public SoundEffect(Sound s) {
+        sound = s;
+    }
+
+    public void play() {
+        if (sound != null) {
+            sound.play();
+        }
+    }
+
+    public void play(float pitch, float volume) {
+        if (sound != null) {
+            sound.play(pitch, volume);
+        }
+    }
+
+    public void loop() {
+        if (sound != null) {
+            sound.loop();
+        }
+    }
+
+    public void stop() {
+        if (sound != null) {
+            sound.stop();
+        }
+    }
+
+    public boolean playing() {
+        return sound != null && sound.playing();
+    }
+
+}
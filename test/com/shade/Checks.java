@@ -0,0 +1,93 @@
+package com.shade;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the regression checks.
+ *
+ * A check is a public static method with no arguments whose name starts with
+ * "check", on a class whose name ends in "Check". The runner finds every such
+ * class under the directory it's given, runs each check and exits with a
+ * non-zero status if any of them throw. Use the helpers here to fail.
+ *
+ * Run them with ant test.
+ */
+public class Checks {
+
+    private Checks() {
+        // static only
+    }
+
+    public static void that(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    public static void equal(Object expected, Object actual, String message) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(message + ": expected " + expected
+                    + " but was " + actual);
+        }
+    }
+
+    public static void near(float expected, float actual, float within,
+            String message) {
+        if (Math.abs(expected - actual) > within) {
+            throw new AssertionError(message + ": expected " + expected
+                    + " but was " + actual);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        File root = new File(args[0]);
+        List<String> names = new ArrayList<String>();
+        find(root, "", names);
+        Collections.sort(names);
+        int run = 0, failed = 0;
+        for (String name : names) {
+            Class<?> c = Class.forName(name);
+            for (Method m : c.getMethods()) {
+                if (!m.getName().startsWith("check")
+                        || !Modifier.isStatic(m.getModifiers())
+                        || m.getParameterTypes().length > 0) {
+                    continue;
+                }
+                run++;
+                try {
+                    m.invoke(null);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAIL " + c.getSimpleName() + "."
+                            + m.getName());
+                    e.getCause().printStackTrace(System.out);
+                }
+            }
+        }
+        System.out.println(run + " checks, " + failed + " failed");
+        if (failed > 0 || run == 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void find(File dir, String pkg, List<String> names) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String name = f.getName();
+            if (f.isDirectory()) {
+                find(f, pkg + name + ".", names);
+            } else if (name.endsWith("Check.class")) {
+                names.add(pkg + name.substring(0, name.length() - 6));
+            }
+        }
+    }
+}
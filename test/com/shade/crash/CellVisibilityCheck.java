@@ -0,0 +1,99 @@
+package com.shade.crash;
+
+import static com.shade.Checks.that;
+
+import java.util.Random;
+
+import org.newdawn.slick.geom.Circle;
+
+import com.crash.Body;
+import com.crash.Response;
+import com.shade.lighting.LuminousEntity;
+import com.shade.sim.Simulation;
+
+public class CellVisibilityCheck {
+
+    private static final String[] LEVELS = { "levels/level-1.xml",
+            "levels/level-2.xml", "levels/level-8.xml",
+            "levels/level-10.xml", "levels/level-11.xml",
+            "levels/level-12.xml", "levels/level-13.xml",
+            "levels/level-14.xml", "levels/level-15.xml",
+            "levels/level-16.xml" };
+
+    /*
+     * Every line the table says walls block, the grid's ray finds blocked
+     * too, looking from something as wide as a bird at the player.
+     */
+    public static void checkAgreesWithRay() throws Exception {
+        Random random = new Random(25);
+        int culled = 0;
+        for (String level : LEVELS) {
+            culled += sample(level, random, 10000);
+        }
+        that(culled > 0, "no line was culled");
+    }
+
+    /* Trace lines between random spots clear of walls, counting the culled. */
+    private static int sample(String level, Random random, int lines)
+            throws Exception {
+        CrashLevel model = new Simulation(level, new Simulation.Idle())
+                .getModel();
+        int c = model.getCellSize();
+        PartitionedGrid grid = new PartitionedGrid(model.getWidth() / c,
+                model.getHeight() / c, c);
+        grid.setResponse(new Response() {
+            public void respond(Body one, Body two) {
+            }
+        });
+        EntityStore store = new EntityStore();
+        for (LuminousEntity e : model.toArray()) {
+            store.add(e);
+            grid.add((Body) e);
+        }
+        CellVisibility walls = new CellVisibility(grid.width, grid.height, c,
+                c);
+        Stub eye = new Stub(new Circle(0, 0, 21));
+        Stub seen = new Stub(new Circle(0, 0, 18));
+        grid.add(eye);
+        grid.add(seen);
+        int culled = 0;
+        for (int i = 0; i < lines; i++) {
+            place(eye, store, model, random);
+            place(seen, store, model, random);
+            grid.update();
+            Body[] exceptions = { eye };
+            if (walls.blocked(store, eye, seen, exceptions)) {
+                culled++;
+                that(!grid.ray(eye, seen, exceptions), level + ": ray from "
+                        + eye + " reached " + seen);
+            }
+        }
+        return culled;
+    }
+
+    /* Move the body somewhere it doesn't overlap any wall's bounds. */
+    private static void place(Body b, EntityStore store, CrashLevel model,
+            Random random) {
+        do {
+            b.nudge(random.nextFloat() * model.getWidth() - b.getXCenter(),
+                    random.nextFloat() * model.getHeight() - b.getYCenter());
+        } while (onWall(b, store));
+    }
+
+    private static boolean onWall(Body b, EntityStore store) {
+        for (int i = 0; i < store.size(); i++) {
+            LuminousEntity e = store.get(i);
+            if (!(e instanceof Immobile && e instanceof Repelable)) {
+                continue;
+            }
+            Body w = (Body) e;
+            if (b.getX() < w.getX() + w.getWidth()
+                    && w.getX() < b.getX() + b.getWidth()
+                    && b.getY() < w.getY() + w.getHeight()
+                    && w.getY() < b.getY() + b.getHeight()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.shade.crash;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import java.util.Arrays;
+
+import com.shade.lighting.LuminousEntity;
+
+public class CrashLevelCheck {
+
+    /* An entity added then removed during a tick is gone afterwards. */
+    public static void checkAddThenRemoveDuringUpdate() {
+        final CrashLevel level = new CrashLevel(8, 6, 100);
+        final Stub spawned = new Stub(300, 300, 10, 10);
+        Stub spawner = new Stub(100, 100, 10, 10);
+        spawner.onUpdate = new Runnable() {
+            public void run() {
+                level.add(spawned);
+                level.remove(spawned);
+            }
+        };
+        level.add(spawner);
+        level.update(null, 16);
+        equal(1, level.toArray().length, "entities after the tick");
+        that(!contains(level, spawned), "spawned entity was removed");
+    }
+
+    /* An entity removed then added again during a tick stays. */
+    public static void checkRemoveThenAddDuringUpdate() {
+        final CrashLevel level = new CrashLevel(8, 6, 100);
+        final Stub other = new Stub(300, 300, 10, 10);
+        Stub mover = new Stub(100, 100, 10, 10);
+        mover.onUpdate = new Runnable() {
+            public void run() {
+                level.remove(other);
+                level.add(other);
+            }
+        };
+        level.add(mover);
+        level.add(other);
+        level.update(null, 16);
+        equal(2, level.toArray().length, "entities after the tick");
+        that(contains(level, other), "re-added entity is still there");
+    }
+
+    /* Entities queued for removal aren't updated later in the tick. */
+    public static void checkRemovedEntitiesSkipUpdate() {
+        final CrashLevel level = new CrashLevel(8, 6, 100);
+        final Stub a = new Stub(100, 100, 10, 10);
+        final Stub b = new Stub(300, 300, 10, 10);
+        Runnable removeOther = new Runnable() {
+            public void run() {
+                level.remove(a.updates > 0 && b.updates == 0 ? b : a);
+            }
+        };
+        a.onUpdate = removeOther;
+        b.onUpdate = removeOther;
+        level.add(a);
+        level.add(b);
+        level.update(null, 16);
+        equal(1, a.updates + b.updates, "updates made");
+        equal(1, level.toArray().length, "entities after the tick");
+    }
+
+    private static boolean contains(CrashLevel level, LuminousEntity e) {
+        return Arrays.asList(level.toArray()).contains(e);
+    }
+}
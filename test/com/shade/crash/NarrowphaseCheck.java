@@ -0,0 +1,120 @@
+package com.shade.crash;
+
+import static com.shade.Checks.near;
+import static com.shade.Checks.that;
+
+import java.util.Random;
+
+import org.newdawn.slick.geom.Circle;
+import org.newdawn.slick.geom.Shape;
+
+import com.crash.Body;
+
+public class NarrowphaseCheck {
+
+    private static final float EPSILON = 1e-4f;
+
+    /* A circle body, for checks which go through collide. */
+    private static class Ball extends Stub {
+
+        private Circle circle;
+
+        public Ball(float x, float y, float r) {
+            super(x - r, y - r, 2 * r, 2 * r);
+            circle = new Circle(x, y, r);
+        }
+
+        public Shape getShape() {
+            return circle;
+        }
+    }
+
+    public static void checkCircles() {
+        Contact c = new Contact();
+        that(!Narrowphase.circles(0, 0, 5, 11, 0, 5, c), "apart");
+        that(Narrowphase.circles(0, 0, 5, 10, 0, 5, c), "touching");
+        that(Narrowphase.circles(0, 0, 5, 6, 8, 5, c), "overlapping");
+        near(-.6f, c.nx, EPSILON, "nx");
+        near(-.8f, c.ny, EPSILON, "ny");
+        near(0, c.depth, EPSILON, "depth");
+        that(Narrowphase.circles(0, 0, 5, 3, 4, 5, c), "overlapping");
+        near(5, c.depth, EPSILON, "depth");
+        // moving the first circle by the contact leaves them touching
+        float x = c.getX(), y = c.getY();
+        near(10, (float) Math.hypot(x - 3, y - 4), EPSILON, "separated");
+        that(Narrowphase.circles(2, 2, 3, 2, 2, 4, c), "same center");
+        near(1, c.nx, EPSILON, "same center moves right");
+        near(7, c.depth, EPSILON, "same center depth");
+    }
+
+    public static void checkCircleOutsideBox() {
+        Contact c = new Contact();
+        that(!Narrowphase.circleBox(-5, 5, 5, 0, 0, 10, 10, c), "touching");
+        that(Narrowphase.circleBox(-3, 5, 5, 0, 0, 10, 10, c), "side");
+        near(-1, c.nx, EPSILON, "side nx");
+        near(0, c.ny, EPSILON, "side ny");
+        near(2, c.depth, EPSILON, "side depth");
+        that(!Narrowphase.circleBox(-4, -4, 5, 0, 0, 10, 10, c),
+                "beyond corner");
+        that(Narrowphase.circleBox(-3, -4, 6, 0, 0, 10, 10, c), "corner");
+        near(-.6f, c.nx, EPSILON, "corner nx");
+        near(-.8f, c.ny, EPSILON, "corner ny");
+        near(1, c.depth, EPSILON, "corner depth");
+    }
+
+    public static void checkCircleInsideBox() {
+        Contact c = new Contact();
+        that(Narrowphase.circleBox(8, 5, 1, 0, 0, 10, 10, c), "inside");
+        near(1, c.nx, EPSILON, "leaves right");
+        near(0, c.ny, EPSILON, "ny");
+        near(3, c.depth, EPSILON, "depth");
+        that(Narrowphase.circleBox(5, 1, 2, 0, 0, 10, 10, c), "inside");
+        near(0, c.nx, EPSILON, "nx");
+        near(-1, c.ny, EPSILON, "leaves up");
+        near(3, c.depth, EPSILON, "depth");
+    }
+
+    public static void checkBoxes() {
+        Contact c = new Contact();
+        that(!Narrowphase.boxes(0, 0, 10, 10, 11, 0, 20, 10, c), "apart");
+        that(Narrowphase.boxes(0, 0, 10, 10, 10, 0, 20, 10, c), "touching");
+        that(Narrowphase.boxes(0, 0, 10, 10, 8, 1, 20, 12, c), "overlapping");
+        near(-1, c.nx, EPSILON, "nx");
+        near(0, c.ny, EPSILON, "ny");
+        near(2, c.depth, EPSILON, "depth");
+        that(Narrowphase.boxes(0, 0, 10, 10, 5, 5, 15, 15, c), "tie");
+        near(0, c.nx, EPSILON, "tie prefers y");
+        near(-1, c.ny, EPSILON, "tie ny");
+        near(5, c.depth, EPSILON, "tie depth");
+    }
+
+    /* With the box first the contact points the other way. */
+    public static void checkBoxThenCircle() {
+        Contact c = new Contact();
+        Body box = new Stub(0, 0, 10, 10);
+        Body ball = new Ball(-3, 5, 5);
+        that(Narrowphase.collide(ball, box, c), "circle first");
+        float nx = c.nx, depth = c.depth;
+        that(Narrowphase.collide(box, ball, c), "box first");
+        near(-nx, c.nx, EPSILON, "reversed nx");
+        near(depth, c.depth, EPSILON, "same depth");
+    }
+
+    /* Circles agree with Slick's own test away from the boundary. */
+    public static void checkCirclesAgreeWithSlick() {
+        Random r = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            float ax = r.nextFloat() * 100, ay = r.nextFloat() * 100;
+            float bx = r.nextFloat() * 100, by = r.nextFloat() * 100;
+            float ar = 5 + r.nextFloat() * 20, br = 5 + r.nextFloat() * 20;
+            float gap = (float) Math.hypot(ax - bx, ay - by) - ar - br;
+            if (Math.abs(gap) < .5f) {
+                continue;
+            }
+            boolean slick = new Circle(ax, ay, ar).intersects(new Circle(bx,
+                    by, br));
+            that(slick == Narrowphase.circles(ax, ay, ar, bx, by, br, null),
+                    "disagree at " + i);
+        }
+    }
+}
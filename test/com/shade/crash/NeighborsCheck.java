@@ -0,0 +1,42 @@
+package com.shade.crash;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import com.shade.entities.Roles;
+
+public class NeighborsCheck {
+
+    /* A buffer without a capacity keeps everything in range, nearest first. */
+    public static void checkGrowsToFitEverything() {
+        CrashLevel level = new CrashLevel(8, 6, 100);
+        Stub mole = new Stub(395, 295, 10, 10);
+        level.add(mole);
+        for (int i = 0; i < 20; i++) {
+            Stub s = new Stub(400 + 8 * i, 300, 2, 2);
+            s.role = Roles.MUSHROOM;
+            level.add(s);
+        }
+        Neighbors nearby = new Neighbors();
+        level.within(mole, 200, Roles.MUSHROOM, nearby);
+        equal(20, nearby.size(), "mushrooms in range");
+        that(!nearby.isFull(), "growing buffer reports full");
+        for (int i = 1; i < nearby.size(); i++) {
+            that(nearby.distance2(i - 1) <= nearby.distance2(i),
+                    "out of order at " + i);
+        }
+    }
+
+    /* A buffer with a capacity keeps only the nearest. */
+    public static void checkBoundedKeepsNearest() {
+        Neighbors nearby = new Neighbors(2);
+        Stub a = new Stub(0, 0, 1, 1), b = new Stub(0, 0, 1, 1);
+        Stub c = new Stub(0, 0, 1, 1);
+        nearby.offer(a, 9);
+        nearby.offer(b, 4);
+        that(!nearby.offer(c, 16), "took an entity further than all held");
+        that(nearby.offer(c, 1), "refused a nearer entity");
+        equal(2, nearby.size(), "size");
+        that(nearby.get(0) == c && nearby.get(1) == b, "kept the nearest");
+    }
+}
@@ -0,0 +1,51 @@
+package com.shade.crash;
+
+import static com.shade.Checks.equal;
+
+import com.crash.Body;
+
+public class SightLinesCheck {
+
+    /* A line is recalled looking past equal exceptions, in a new array. */
+    public static void checkRecallsEqualExceptions() {
+        SightLines lines = new SightLines();
+        Stub a = new Stub(0, 0, 10, 10), b = new Stub(100, 0, 10, 10);
+        Stub c = new Stub(50, 50, 10, 10);
+        lines.remember(a, b, new Body[] { a, c }, true);
+        equal(1, lines.recall(a, b, new Body[] { a, c }), "same exceptions");
+        equal(-1, lines.recall(a, b, new Body[] { a }), "fewer exceptions");
+        equal(-1, lines.recall(a, b, new Body[] { c, a }), "other order");
+        equal(-1, lines.recall(b, a, new Body[] { a, c }), "reversed ends");
+        equal(1L, lines.getHits(), "hits");
+    }
+
+    /* Moving an end or starting a new tick forgets the line. */
+    public static void checkForgets() {
+        SightLines lines = new SightLines();
+        Stub a = new Stub(0, 0, 10, 10), b = new Stub(100, 0, 10, 10);
+        lines.remember(a, b, new Body[0], false);
+        equal(0, lines.recall(a, b, new Body[0]), "remembered blocked");
+        b.nudge(1, 0);
+        equal(-1, lines.recall(a, b, new Body[0]), "after a move");
+        lines.remember(a, b, new Body[0], true);
+        equal(1, lines.recall(a, b, new Body[0]), "retraced");
+        lines.forget();
+        equal(-1, lines.recall(a, b, new Body[0]), "after forgetting");
+    }
+
+    /* Every line survives the tables growing. */
+    public static void checkGrows() {
+        SightLines lines = new SightLines();
+        Stub[] s = new Stub[40];
+        for (int i = 0; i < s.length; i++) {
+            s[i] = new Stub(i * 10, 0, 5, 5);
+        }
+        for (int i = 0; i + 1 < s.length; i++) {
+            lines.remember(s[i], s[i + 1], new Body[] { s[i] }, i % 2 == 0);
+        }
+        for (int i = 0; i + 1 < s.length; i++) {
+            equal(i % 2 == 0 ? 1 : 0, lines.recall(s[i], s[i + 1],
+                    new Body[] { s[i] }), "line " + i);
+        }
+    }
+}
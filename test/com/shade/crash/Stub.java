@@ -0,0 +1,76 @@
+package com.shade.crash;
+
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.geom.Rectangle;
+import org.newdawn.slick.geom.Shape;
+import org.newdawn.slick.state.StateBasedGame;
+
+import com.crash.Body;
+import com.shade.base.Entity;
+import com.shade.base.Level;
+import com.shade.entities.Roles;
+import com.shade.lighting.LuminousEntity;
+
+/**
+ * A bare box entity for checks which need something in a level.
+ */
+public class Stub extends Body implements LuminousEntity, Shaped {
+
+    public Runnable onUpdate;
+    public int updates;
+    public Roles role = Roles.OBSTACLE;
+
+    public Stub(float x, float y, float w, float h) {
+        this(new Rectangle(x, y, w, h));
+    }
+
+    public Stub(Shape s) {
+        super(s);
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    public int getRole() {
+        return role.ordinal();
+    }
+
+    public void addToLevel(Level<?> l) {
+    }
+
+    public void removeFromLevel(Level<?> l) {
+    }
+
+    public void onCollision(Entity obstacle) {
+    }
+
+    public void render(StateBasedGame game, Graphics g) {
+    }
+
+    public void update(StateBasedGame game, int delta) {
+        updates++;
+        if (onUpdate != null) {
+            onUpdate.run();
+        }
+    }
+
+    public int getZIndex() {
+        return 0;
+    }
+
+    public float getLuminosity() {
+        return 0;
+    }
+
+    public void setLuminosity(float l) {
+    }
+
+    public Shape castShadow(float direction, float depth) {
+        return null;
+    }
+
+    public int compareTo(LuminousEntity o) {
+        return 0;
+    }
+}
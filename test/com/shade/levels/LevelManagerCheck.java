@@ -0,0 +1,28 @@
+package com.shade.levels;
+
+import static com.shade.Checks.that;
+
+import org.newdawn.slick.SlickException;
+
+import com.shade.util.ResourceManager;
+
+public class LevelManagerCheck {
+
+    /* A level which can't be read fails once and isn't tried again. */
+    public static void checkFailedLevelIsRemembered() throws Exception {
+        ResourceManager.setHeadless(true);
+        LevelManager levels = new LevelManager("levels/missing.xml");
+        long until = System.currentTimeMillis() + 5000;
+        while (levels.failure(0) == null
+                && System.currentTimeMillis() < until) {
+            that(!levels.prepare(0), "prepared a missing level");
+            Thread.sleep(10);
+        }
+        SlickException first = levels.failure(0);
+        that(first != null, "failure wasn't remembered");
+        levels.prefetch(0);
+        that(!levels.prepare(0), "prepared a missing level");
+        that(levels.get(0) == null, "got a missing level");
+        that(levels.failure(0) == first, "level was tried again");
+    }
+}
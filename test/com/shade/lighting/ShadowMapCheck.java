@@ -0,0 +1,73 @@
+package com.shade.lighting;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.near;
+import static com.shade.Checks.that;
+
+import org.newdawn.slick.geom.Rectangle;
+import org.newdawn.slick.geom.Shape;
+
+import com.shade.crash.Stub;
+
+public class ShadowMapCheck {
+
+    /* A box whose shadow falls to its right, whatever the light. */
+    private static class Caster extends Stub {
+
+        public Caster(float x, float y) {
+            super(x, y, 20, 20);
+        }
+
+        public Shape castShadow(float direction, float depth) {
+            return new Rectangle(getX() + 20, getY(), 40, 20);
+        }
+    }
+
+    /*
+     * The sun creeping along a tick at a time doesn't recast the shadows
+     * every tick; seven ticks are less than a bucket wide.
+     */
+    public static void checkSunCreepKeepsShadows() {
+        ShadowMap map = new ShadowMap(800, 600, 100);
+        Caster c = new Caster(100, 100);
+        float angle = 1;
+        for (int i = 0; i < 7; i++) {
+            map.update(angle, 12, c);
+            angle += .00084f;
+        }
+        that(map.rebuilds() <= 2, "rebuilt " + map.rebuilds() + " times");
+    }
+
+    /* Moving a caster recasts, and only then. */
+    public static void checkMovedCasterRecasts() {
+        ShadowMap map = new ShadowMap(800, 600, 100);
+        Caster c = new Caster(100, 100);
+        Caster d = new Caster(400, 400);
+        map.update(1, 12, c, d);
+        that(!map.update(1, 12, c, d), "recast with nothing changed");
+        d.nudge(5, 0);
+        that(map.update(1, 12, c, d), "didn't recast after a move");
+        that(map.update(1, 12, c), "didn't recast after a removal");
+        that(map.shadowed(130, 110), "point behind the caster is shaded");
+        that(!map.shadowed(10, 10), "open ground is lit");
+    }
+
+    /* Entities stop at the first null, as toArray leaves them. */
+    public static void checkNullEndsEntities() {
+        ShadowMap map = new ShadowMap(800, 600, 100);
+        Caster c = new Caster(100, 100);
+        LuminousEntity[] entities = { c, null, new Caster(400, 400) };
+        map.update(1, 12, entities);
+        map.illuminate(entities);
+        that(!map.shadowed(430, 410), "caster past the null cast a shadow");
+        equal(1, map.rebuilds(), "rebuilds");
+    }
+
+    /* Shade and light match what the light mask would read back. */
+    public static void checkLevelsMatchMask() {
+        ShadowMap map = new ShadowMap(800, 600, 100);
+        map.update(1, 12, new Caster(100, 100));
+        near(LightMask.SHADE.a, map.luminosity(130, 110), 1e-6f, "shade");
+        near(1, map.luminosity(10, 10), 1e-6f, "light");
+    }
+}
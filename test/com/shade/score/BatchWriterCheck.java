@@ -0,0 +1,58 @@
+package com.shade.score;
+
+import static com.shade.Checks.equal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class BatchWriterCheck {
+
+    /* Only an explicit complaint about the chunk drops it. */
+    public static void checkOnlyInvalidIsRejected() throws IOException {
+        equal(BatchWriter.SENT, answer(200, "success"), "success");
+        equal(BatchWriter.REJECTED, answer(422, "invalid"), "422");
+        equal(BatchWriter.REJECTED, answer(200, "invalid"), "invalid");
+        equal(BatchWriter.FAILED, answer(200, "failure"), "old server");
+        equal(BatchWriter.FAILED, answer(200, "<html>"), "portal page");
+        equal(BatchWriter.FAILED, answer(404, "not found"), "404");
+        equal(BatchWriter.FAILED, answer(407, "proxy"), "407");
+        equal(BatchWriter.FAILED, answer(429, "slow down"), "429");
+        equal(BatchWriter.FAILED, answer(503, "failure"), "503");
+    }
+
+    /* Post one score to a server which always gives the same answer. */
+    private static int answer(final int status, final String body)
+            throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(
+                "127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            public void handle(HttpExchange e) throws IOException {
+                InputStream in = e.getRequestBody();
+                while (in.read() >= 0) {
+                }
+                byte[] reply = body.getBytes("UTF-8");
+                e.sendResponseHeaders(status, reply.length);
+                OutputStream out = e.getResponseBody();
+                out.write(reply);
+                out.close();
+            }
+        });
+        server.start();
+        try {
+            List<String[]> chunk = new ArrayList<String[]>();
+            chunk.add(new String[] { "Ann", "10", "1", "0", "k1" });
+            return new BatchWriter("http://127.0.0.1:"
+                    + server.getAddress().getPort() + "/").write(chunk);
+        } finally {
+            server.stop(0);
+        }
+    }
+}
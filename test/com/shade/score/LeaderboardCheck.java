@@ -0,0 +1,70 @@
+package com.shade.score;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class LeaderboardCheck {
+
+    private static ScoreJournal.Entry entry(int score, boolean special,
+            long sequence) {
+        ScoreJournal.Entry e = new ScoreJournal.Entry("p", score, 1, special);
+        e.sequence = sequence;
+        return e;
+    }
+
+    /* Scores rank by number, not by their text. */
+    public static void checkRanksNumerically() {
+        Leaderboard board = new Leaderboard(10);
+        board.offer(entry(900, false, 0));
+        board.offer(entry(1200, false, 1));
+        board.offer(entry(95, false, 2));
+        equal(1200, board.get(0).score, "best");
+        equal(900, board.get(1).score, "second");
+        equal(95, board.get(2).score, "third");
+    }
+
+    /* Between equal scores a clear ranks first, then the earlier one. */
+    public static void checkBreaksTies() {
+        Leaderboard board = new Leaderboard(10);
+        ScoreJournal.Entry early = entry(50, false, 0);
+        ScoreJournal.Entry late = entry(50, false, 1);
+        ScoreJournal.Entry clear = entry(50, true, 2);
+        board.offer(late);
+        board.offer(clear);
+        board.offer(early);
+        that(board.get(0) == clear, "clear ranks first");
+        that(board.get(1) == early, "earlier ranks next");
+        that(board.get(2) == late, "later ranks last");
+    }
+
+    /* A full board keeps exactly the best, in order, like sorting them all. */
+    public static void checkKeepsTheBest() {
+        Random r = new Random(7);
+        Leaderboard board = new Leaderboard(25);
+        List<ScoreJournal.Entry> all = new ArrayList<ScoreJournal.Entry>();
+        for (int i = 0; i < 1000; i++) {
+            ScoreJournal.Entry e = entry(r.nextInt(200), r.nextInt(4) == 0, i);
+            all.add(e);
+            board.offer(e);
+            if (i % 97 == 0) {
+                board.get(0);
+            }
+        }
+        Collections.sort(all, new Comparator<ScoreJournal.Entry>() {
+            public int compare(ScoreJournal.Entry a, ScoreJournal.Entry b) {
+                return Leaderboard.outranks(a, b) ? -1 : Leaderboard
+                        .outranks(b, a) ? 1 : 0;
+            }
+        });
+        equal(25, board.size(), "size");
+        for (int i = 0; i < board.size(); i++) {
+            that(board.get(i) == all.get(i), "wrong entry at " + i);
+        }
+    }
+}
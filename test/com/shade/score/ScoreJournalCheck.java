@@ -0,0 +1,62 @@
+package com.shade.score;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ScoreJournalCheck {
+
+    private static File empty() throws IOException {
+        File f = File.createTempFile("scores", ".csv");
+        f.deleteOnExit();
+        return f;
+    }
+
+    /* A player named like the sent marker is just a score. */
+    public static void checkMarkerNameIsAScore() throws IOException {
+        File f = empty();
+        ScoreJournal journal = new ScoreJournal(f);
+        journal.append("Ann", 10, 1, false);
+        journal.append("#sent", 20, 1, false);
+        journal = new ScoreJournal(f);
+        equal(2, journal.countPending(), "pending scores");
+        String[][] top = journal.top(1, 0);
+        equal(2, top.length, "scores on the board");
+        equal("#sent", top[0][0], "best score's name");
+    }
+
+    /* A marker covers the score with its key and everything before. */
+    public static void checkMarkerCoversEarlierScores() throws IOException {
+        File f = empty();
+        ScoreJournal journal = new ScoreJournal(f);
+        journal.append("Ann", 10, 1, false);
+        journal.append("Bob", 20, 1, false);
+        journal.append("Cid", 30, 1, false);
+        List<String[]> chunk = new ArrayList<String[]>();
+        journal.pending(2, 1 << 16, chunk);
+        equal(2, chunk.size(), "chunk size");
+        journal.acknowledge(chunk.get(1)[4]);
+        journal = new ScoreJournal(f);
+        equal(1, journal.countPending(), "pending after reloading");
+        journal.pending(10, 1 << 16, chunk);
+        that("Cid".equals(chunk.get(0)[0]), "the unsent score is Cid's");
+    }
+
+    /* A score from before keys keeps the key it's given on first reading. */
+    public static void checkLegacyScoreKeepsItsKey() throws IOException {
+        File f = empty();
+        FileWriter out = new FileWriter(f);
+        out.write("Ann,10,1,0\n");
+        out.close();
+        List<String[]> chunk = new ArrayList<String[]>();
+        new ScoreJournal(f).pending(10, 1 << 16, chunk);
+        String key = chunk.get(0)[4];
+        new ScoreJournal(f).pending(10, 1 << 16, chunk);
+        equal(key, chunk.get(0)[4], "key after reloading");
+    }
+}
@@ -0,0 +1,35 @@
+package com.shade.sim;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import com.shade.lighting.LuminousEntity;
+
+public class SimulationCheck {
+
+    /* Standing about on the first level, the player sees the sun. */
+    public static void checkPlayerIsLit() throws Exception {
+        Simulation s = new Simulation("levels/level-1.xml",
+                new Simulation.Idle());
+        s.runDays(1);
+        that(s.getLitTicks() > 0, "player was never lit");
+    }
+
+    /* The same seed plays out the same way. */
+    public static void checkSameSeedSameGame() throws Exception {
+        String first = play(7), second = play(7);
+        equal(first, second, "where everything ended up");
+    }
+
+    private static String play(long seed) throws Exception {
+        Simulation s = new Simulation("levels/level-1.xml",
+                new Simulation.Idle(), seed);
+        s.run(3000);
+        StringBuilder where = new StringBuilder();
+        for (LuminousEntity e : s.getModel().toArray()) {
+            where.append(e.getRole()).append(' ').append(e.getXCenter())
+                    .append(',').append(e.getYCenter()).append('\n');
+        }
+        return where.toString();
+    }
+}
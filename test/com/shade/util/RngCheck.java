@@ -0,0 +1,50 @@
+package com.shade.util;
+
+import static com.shade.Checks.equal;
+import static com.shade.Checks.that;
+
+import java.util.SplittableRandom;
+
+public class RngCheck {
+
+    /* The same seed gives the same numbers. */
+    public static void checkSameSeedSameNumbers() {
+        Rng a = new Rng(12345), b = new Rng(12345);
+        for (int i = 0; i < 1000; i++) {
+            equal(a.nextLong(), b.nextLong(), "number " + i);
+        }
+        a.setSeed(99);
+        b = new Rng(99);
+        equal(a.nextLong(), b.nextLong(), "after reseeding");
+    }
+
+    /* It's SplitMix64, so it agrees with SplittableRandom. */
+    public static void checkMatchesSplittableRandom() {
+        Rng a = new Rng(42);
+        SplittableRandom b = new SplittableRandom(42);
+        for (int i = 0; i < 100; i++) {
+            equal(b.nextLong(), a.nextLong(), "number " + i);
+        }
+    }
+
+    /* Numbers stay in range. */
+    public static void checkRanges() {
+        Rng r = new Rng(1);
+        for (int i = 0; i < 10000; i++) {
+            double d = r.nextDouble();
+            float f = r.nextFloat();
+            int n = r.nextInt(7);
+            that(d >= 0 && d < 1, "double out of range: " + d);
+            that(f >= 0 && f < 1, "float out of range: " + f);
+            that(n >= 0 && n < 7, "int out of range: " + n);
+        }
+    }
+
+    /* Splitting is repeatable and the two generators differ. */
+    public static void checkSplit() {
+        Rng a = new Rng(5), b = new Rng(5);
+        Rng c = a.split(), d = b.split();
+        equal(c.nextLong(), d.nextLong(), "split streams");
+        that(a.nextLong() != c.nextLong(), "split follows its parent");
+    }
+}